@@ -0,0 +1,116 @@
+package com.kushyanth.inventary.benchmark;
+
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.service.InventoryStatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard stats over N items. {@code fullScan} is the aggregation the stats endpoint
+ * used to run over every active item on each call (without the query itself);
+ * {@code incrementalRead} serves the maintained aggregates and
+ * {@code incrementalUpdateThenRead} applies one stock change before reading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardStatsBenchmark {
+
+    @Param({"1000", "100000"})
+    private int itemCount;
+
+    private List<InventoryItem> items;
+    private ItemSnapshot[] snapshots;
+    private InventoryStatsService statsService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        items = SyntheticItems.generate(itemCount, 42);
+        snapshots = new ItemSnapshot[itemCount];
+        statsService = new InventoryStatsService();
+        for (int i = 0; i < itemCount; i++) {
+            snapshots[i] = ItemSnapshot.of(items.get(i));
+            statsService.onItemChanged(new InventoryItemChangedEvent(null, snapshots[i]));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> fullScan() {
+        Map<String, Object> stats = new HashMap<>();
+
+        int totalItems = items.size();
+        long totalQuantity = items.stream().mapToLong(InventoryItem::getQuantity).sum();
+        long lowStockCount = items.stream().filter(InventoryItem::isLowStock).count();
+
+        Map<String, Long> categoryDistribution = new HashMap<>();
+        items.stream()
+             .filter(item -> item.getCategory() != null)
+             .forEach(item -> categoryDistribution.merge(item.getCategory(), 1L, Long::sum));
+
+        Map<String, Long> supplierDistribution = new HashMap<>();
+        items.stream()
+             .filter(item -> item.getSupplierName() != null)
+             .forEach(item -> supplierDistribution.merge(item.getSupplierName(), 1L, Long::sum));
+
+        Map<String, Long> locationDistribution = new HashMap<>();
+        items.stream()
+             .filter(item -> item.getLocation() != null)
+             .forEach(item -> locationDistribution.merge(item.getLocation(), 1L, Long::sum));
+
+        long healthyStockCount = items.stream()
+                .filter(item -> !item.isLowStock())
+                .count();
+
+        stats.put("totalItems", totalItems);
+        stats.put("totalQuantity", totalQuantity);
+        stats.put("lowStockCount", lowStockCount);
+        stats.put("healthyStockCount", healthyStockCount);
+        stats.put("categoryDistribution", categoryDistribution);
+        stats.put("supplierDistribution", supplierDistribution);
+        stats.put("locationDistribution", locationDistribution);
+
+        Map<String, Long> stockStatus = new HashMap<>();
+        stockStatus.put("healthy", healthyStockCount);
+        stockStatus.put("lowStock", lowStockCount);
+        stats.put("stockStatus", stockStatus);
+        return stats;
+    }
+
+    @Benchmark
+    public Map<String, Object> incrementalRead() {
+        return statsService.getDashboardStats();
+    }
+
+    @Benchmark
+    public Map<String, Object> incrementalUpdateThenRead() {
+        int index = next++ % itemCount;
+        ItemSnapshot before = snapshots[index];
+        // Alternate between two levels so the totals stay bounded across iterations
+        int quantity = before.getQuantity() % 2 == 0 ? before.getQuantity() + 1 : before.getQuantity() - 1;
+        ItemSnapshot after = before.withQuantity(quantity);
+        snapshots[index] = after;
+
+        statsService.onItemChanged(new InventoryItemChangedEvent(before, after));
+        return statsService.getDashboardStats();
+    }
+}
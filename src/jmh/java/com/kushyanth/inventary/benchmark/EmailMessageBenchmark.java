@@ -0,0 +1,49 @@
+package com.kushyanth.inventary.benchmark;
+
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.service.EmailService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Building low stock alert messages: a single item alert and a coalesced digest of 50 items
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailMessageBenchmark {
+
+    private EmailService emailService;
+    private List<ItemSnapshot> single;
+    private List<ItemSnapshot> digest;
+
+    @Setup
+    public void setUp() {
+        emailService = new EmailService();
+        digest = SyntheticItems.generate(50, 42).stream().map(ItemSnapshot::of).toList();
+        single = digest.subList(0, 1);
+    }
+
+    @Benchmark
+    public SimpleMailMessage singleAlert() {
+        return emailService.buildLowStockAlert("warehouse@company.com", single);
+    }
+
+    @Benchmark
+    public SimpleMailMessage digestAlert() {
+        return emailService.buildLowStockAlert("warehouse@company.com", digest);
+    }
+}
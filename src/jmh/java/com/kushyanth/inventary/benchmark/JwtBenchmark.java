@@ -0,0 +1,85 @@
+package com.kushyanth.inventary.benchmark;
+
+import com.kushyanth.inventary.security.UserPrincipal;
+import com.kushyanth.inventary.util.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing at sign-in, and the per-request cost of turning a bearer token into
+ * claims. {@code legacy} is what the
+ * filter used to do: build the key and a parser for validateJwtToken, then again for
+ * getUserNameFromJwtToken. {@code singleParse} builds nothing per call and parses once;
+ * {@code cached} is the default path, where repeat tokens are a hash and a map lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey1234567890123456789012345678901234567890123456789012";
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private UsernamePasswordAuthenticationToken authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtils(SECRET, 86400000, 0);
+        cached = new JwtUtils(SECRET, 86400000, 10000);
+
+        UserPrincipal principal = new UserPrincipal(1L, "admin", "admin@inventory.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), 0);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = uncached.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return uncached.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String legacy() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return uncached.getClaimsFromJwtToken(token);
+    }
+
+    @Benchmark
+    public Claims cached() {
+        return cached.getClaimsFromJwtToken(token);
+    }
+}
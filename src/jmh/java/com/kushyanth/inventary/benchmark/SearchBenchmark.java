@@ -0,0 +1,87 @@
+package com.kushyanth.inventary.benchmark;
+
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.service.ItemSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of search results over N items. {@code scan} matches every item the way
+ * LOWER(...) LIKE '%term%' does (without the database round trip); {@code index}
+ * goes through the trigram index that backs the search endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SearchBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"10000", "100000"})
+    private int itemCount;
+
+    // Broad word, exact SKU, a phrase, and a miss
+    @Param({"wrench", "SKU-0004242", "steel drill 4", "xylophone"})
+    private String term;
+
+    private List<InventoryItem> items;
+    private ItemSearchIndex searchIndex;
+
+    @Setup
+    public void setUp() {
+        items = SyntheticItems.generate(itemCount, 42);
+
+        searchIndex = new ItemSearchIndex();
+        Field enabled = ReflectionUtils.findField(ItemSearchIndex.class, "enabled");
+        ReflectionUtils.makeAccessible(enabled);
+        ReflectionUtils.setField(enabled, searchIndex, true);
+        for (InventoryItem item : items) {
+            searchIndex.onItemChanged(new InventoryItemChangedEvent(null, ItemSnapshot.of(item)));
+        }
+    }
+
+    @Benchmark
+    public List<Long> scan() {
+        String needle = term.toLowerCase(Locale.ROOT);
+        List<Long> page = new ArrayList<>(PAGE_SIZE);
+        long total = 0;
+        for (InventoryItem item : items) {
+            if (item.getName().toLowerCase(Locale.ROOT).contains(needle)
+                    || item.getSku().toLowerCase(Locale.ROOT).contains(needle)
+                    || item.getDescription().toLowerCase(Locale.ROOT).contains(needle)) {
+                if (page.size() < PAGE_SIZE) {
+                    page.add(item.getId());
+                }
+                total++;
+            }
+        }
+        page.add(total);
+        return page;
+    }
+
+    @Benchmark
+    public ItemSearchIndex.SearchResult index() {
+        return searchIndex.search(term, 0, PAGE_SIZE);
+    }
+}
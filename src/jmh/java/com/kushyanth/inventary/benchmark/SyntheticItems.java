@@ -0,0 +1,56 @@
+package com.kushyanth.inventary.benchmark;
+
+import com.kushyanth.inventary.entity.InventoryItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic catalog for benchmarks, shaped like real data: few categories and locations, more suppliers
+final class SyntheticItems {
+
+    static final String[] CATEGORIES = {"Electronics", "Hardware", "Office", "Packaging", "Safety", "Tools",
+            "Cleaning", "Furniture"};
+    private static final String[] NOUNS = {"bolt", "cable", "drill", "glove", "label", "monitor", "pallet",
+            "sensor", "tape", "wrench"};
+    private static final String[] ADJECTIVES = {"heavy", "compact", "steel", "wireless", "industrial",
+            "premium", "spare", "coated"};
+
+    private SyntheticItems() {
+    }
+
+    static List<InventoryItem> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<InventoryItem> items = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 1; i <= count; i++) {
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+
+            InventoryItem item = new InventoryItem();
+            item.setId((long) i);
+            item.setSku(String.format("SKU-%07d", i));
+            item.setName(capitalize(adjective) + " " + noun + " " + (i % 97));
+            item.setDescription("A " + adjective + " " + noun + " for warehouse use, batch " + random.nextInt(1000));
+            item.setQuantity(random.nextInt(500));
+            item.setReorderThreshold(10 + random.nextInt(40));
+            item.setUnitPrice(BigDecimal.valueOf(random.nextInt(100000), 2));
+            item.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            item.setSupplierName("Supplier " + random.nextInt(200));
+            item.setSupplierEmail("orders@supplier" + random.nextInt(200) + ".example");
+            item.setLocation("Aisle " + random.nextInt(40));
+            item.setCreatedAt(now);
+            item.setUpdatedAt(now);
+            item.setCreatedBy("admin");
+            item.setUpdatedBy("admin");
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,31 @@
+package com.kushyanth.inventary.config;
+
+import com.kushyanth.inventary.service.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling for the stock, create and batch endpoints
+ * ({@code inventory.idempotency.enabled}, on by default).
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    // Behind the security filter chain, so the authenticated user is known and keys are scoped to it
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore idempotencyStore,
+            @Value("${inventory.idempotency.in-flight-wait:30s}") Duration inFlightWait) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, inFlightWait));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,267 @@
+package com.kushyanth.inventary.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kushyanth.inventary.dto.IdempotentResponse;
+import com.kushyanth.inventary.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Runs stock, create and batch requests carrying an {@code Idempotency-Key} at most once
+ * per user and key. A repeat gets the stored response with {@code Idempotent-Replayed: true};
+ * a repeat arriving while the first is still running waits for it. Reusing a key for a
+ * different request, including a different {@code If-Match}, is answered with 422. Refusals
+ * carry the usual error body with the reason. Runs after the security chain, so keys are
+ * scoped to the authenticated user; 5xx responses and exceptions are not remembered.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Pattern ITEMS = Pattern.compile("/api/inventory/items");
+    private static final Pattern STOCK = Pattern.compile("/api/inventory/items/[^/]+/stock");
+    private static final Pattern STOCK_BATCH = Pattern.compile("/api/inventory/items/stock:batch");
+
+    private final IdempotencyStore store;
+    private final long inFlightWaitMillis;
+
+    public IdempotencyFilter(IdempotencyStore store, Duration inFlightWait) {
+        this.store = store;
+        this.inFlightWaitMillis = inFlightWait.toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(IDEMPOTENCY_KEY) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return switch (request.getMethod()) {
+            case "POST" -> !ITEMS.matcher(path).matches() && !STOCK_BATCH.matcher(path).matches();
+            case "PUT", "PATCH" -> !STOCK.matcher(path).matches();
+            default -> true;
+        };
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(request, response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String keyHash = sha256(authentication.getName() + "\n" + key);
+        String requestHash = requestHash(cachedRequest);
+
+        while (true) {
+            IdempotentResponse stored = store.find(keyHash);
+            if (stored != null) {
+                replay(stored, requestHash, request, response);
+                return;
+            }
+
+            CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = store.claim(keyHash, execution);
+            if (running == null) {
+                // The previous owner may have stored its response between the lookup and the claim
+                stored = store.find(keyHash);
+                if (stored != null) {
+                    store.complete(keyHash, execution, null);
+                    replay(stored, requestHash, request, response);
+                    return;
+                }
+                execute(cachedRequest, response, filterChain, keyHash, requestHash, execution);
+                return;
+            }
+
+            IdempotentResponse first;
+            try {
+                first = running.get(inFlightWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                reject(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + IDEMPOTENCY_KEY + " is still in progress, retry later");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reject(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                        "Interrupted while waiting for the request with this " + IDEMPOTENCY_KEY);
+                return;
+            } catch (ExecutionException e) {
+                first = null;
+            }
+            if (first != null) {
+                replay(first, requestHash, request, response);
+                return;
+            }
+            // The first execution failed without a stored response, so this one may run it
+        }
+    }
+
+    private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String keyHash, String requestHash, CompletableFuture<IdempotentResponse> execution)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper bufferedResponse = new ContentCachingResponseWrapper(response);
+        IdempotentResponse result = null;
+        try {
+            filterChain.doFilter(request, bufferedResponse);
+            if (bufferedResponse.getStatus() < 500) {
+                result = new IdempotentResponse(requestHash, bufferedResponse.getStatus(),
+                        bufferedResponse.getContentType(), bufferedResponse.getHeader(HttpHeaders.ETAG),
+                        bufferedResponse.getContentAsByteArray());
+            }
+        } finally {
+            store.complete(keyHash, execution, result);
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(IdempotentResponse stored, String requestHash, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    IDEMPOTENCY_KEY + " was already used for a different request");
+            return;
+        }
+        response.setStatus(stored.getStatus());
+        response.setHeader(REPLAYED, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        if (stored.getETag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.getETag());
+        }
+        if (stored.getBody() != null && stored.getBody().length > 0) {
+            response.setContentLength(stored.getBody().length);
+            response.getOutputStream().write(stored.getBody());
+        }
+    }
+
+    // Same shape as the body AuthEntryPointJwt writes for 401s
+    private static void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                               String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        body.put("path", request.getRequestURI());
+        OBJECT_MAPPER.writeValue(response.getOutputStream(), body);
+    }
+
+    // If-Match is part of the request: the same body sent against another version is another request
+    private static String requestHash(CachedBodyRequest request) {
+        MessageDigest digest = sha256();
+        digest.update((request.getMethod() + " " + request.getRequestURI() + "?" + request.getQueryString() + "\n"
+                + request.getHeader(HttpHeaders.IF_MATCH) + "\n").getBytes(StandardCharsets.UTF_8));
+        digest.update(request.body);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(String value) {
+        return HexFormat.of().formatHex(sha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Reads the body once for the request hash and hands the same bytes to the controller
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
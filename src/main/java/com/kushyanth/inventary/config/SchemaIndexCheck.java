@@ -0,0 +1,123 @@
+package com.kushyanth.inventary.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Warns at startup when an index the change log and item queries rely on is missing,
+ * e.g. a migration that failed part way or an index dropped by hand. An index counts as
+ * present when some index on the table starts with the expected columns, whatever its name.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.schema.index-check.enabled", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexCheck.class);
+
+    /** Index name to table and leading columns, as created by V2__performance_indexes.sql. */
+    static final List<ExpectedIndex> EXPECTED_INDEXES = List.of(
+            new ExpectedIndex("idx_change_logs_item_date", "inventory_change_logs", "inventory_item_id", "change_date", "id"),
+            new ExpectedIndex("idx_change_logs_date", "inventory_change_logs", "change_date", "id"),
+            new ExpectedIndex("idx_change_logs_changed_by_date", "inventory_change_logs", "changed_by", "change_date"),
+            new ExpectedIndex("idx_change_logs_type_date", "inventory_change_logs", "change_type", "change_date"),
+            new ExpectedIndex("idx_inventory_items_active_low_stock", "inventory_items", "is_active", "low_stock"),
+            new ExpectedIndex("idx_inventory_items_active_category", "inventory_items", "is_active", "category"),
+            new ExpectedIndex("idx_inventory_items_active_supplier", "inventory_items", "is_active", "supplier_name"),
+            new ExpectedIndex("idx_inventory_items_active_location", "inventory_items", "is_active", "location"),
+            new ExpectedIndex("idx_idempotency_keys_expires", "idempotency_keys", "expires_at")
+    );
+
+    record ExpectedIndex(String name, String table, String... columns) {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkIndexes() {
+        try {
+            List<String> missing = findMissingIndexes();
+            if (missing.isEmpty()) {
+                logger.info("All {} expected indexes are present", EXPECTED_INDEXES.size());
+            } else {
+                logger.warn("Missing indexes: {}. Queries on these columns will scan; run the migrations " +
+                        "or create the indexes from db/migration", missing);
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not check indexes: {}", e.getMessage());
+        }
+    }
+
+    /** Names of the expected indexes with no matching index in the database. */
+    public List<String> findMissingIndexes() throws SQLException {
+        Map<String, List<List<String>>> indexesByTable = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (ExpectedIndex expected : EXPECTED_INDEXES) {
+                List<List<String>> indexes = indexesByTable.get(expected.table());
+                if (indexes == null) {
+                    indexes = readIndexColumns(metaData, connection, expected.table());
+                    indexesByTable.put(expected.table(), indexes);
+                }
+                if (indexes.stream().noneMatch(columns -> startsWith(columns, expected.columns()))) {
+                    missing.add(expected.name());
+                }
+            }
+        }
+        return missing;
+    }
+
+    // Column lists of each index on the table, in key order
+    private static List<List<String>> readIndexColumns(DatabaseMetaData metaData, Connection connection, String table)
+            throws SQLException {
+        Map<String, TreeMap<Short, String>> columnsByIndex = new HashMap<>();
+        // Unquoted names are stored upper case by some databases and lower case by others
+        for (String tableName : List.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), tableName,
+                    false, false)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName != null && column != null) {
+                        columnsByIndex.computeIfAbsent(indexName, name -> new TreeMap<>())
+                                .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            if (!columnsByIndex.isEmpty()) {
+                break;
+            }
+        }
+        return columnsByIndex.values().stream().map(columns -> List.copyOf(columns.values())).toList();
+    }
+
+    private static boolean startsWith(List<String> indexColumns, String[] expectedColumns) {
+        if (indexColumns.size() < expectedColumns.length) {
+            return false;
+        }
+        for (int i = 0; i < expectedColumns.length; i++) {
+            if (!indexColumns.get(i).equals(expectedColumns[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
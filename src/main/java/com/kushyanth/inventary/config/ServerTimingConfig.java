@@ -0,0 +1,135 @@
+package com.kushyanth.inventary.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kushyanth.inventary.util.RequestTimings;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.authorization.AuthorizationObservationContext;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Opt-in per-request timing breakdown ({@code inventory.server-timing.enabled}). Wires
+ * the phases of {@link RequestTimings}: SQL through a datasource-proxy listener,
+ * authorization (URL rules and {@code @PreAuthorize}) through Spring Security's
+ * observations, and serialization through a timed Jackson converter. JWT parsing, the
+ * principal lookup and SMTP sends are recorded at their call sites.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    private static final String STARTED_AT = ServerTimingConfig.class.getName() + ".startedAt";
+
+    // Ahead of the security filter chain, so token parsing is inside the measured request
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${inventory.server-timing.slow-request-threshold-ms:500}") long slowRequestThresholdMs) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(slowRequestThresholdMs));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlTimingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlTimingListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ObservationHandler<AuthorizationObservationContext<?>> authorizationTimingHandler() {
+        return new ObservationHandler<>() {
+            @Override
+            public void onStart(AuthorizationObservationContext<?> context) {
+                context.put(STARTED_AT, System.nanoTime());
+            }
+
+            @Override
+            public void onStop(AuthorizationObservationContext<?> context) {
+                Long startedAt = context.get(STARTED_AT);
+                if (startedAt != null) {
+                    RequestTimings.record(RequestTimings.Phase.AUTHZ, startedAt);
+                }
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return context instanceof AuthorizationObservationContext<?>;
+            }
+        };
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson) {
+                converters.set(i, new TimedJacksonConverter(jackson.getObjectMapper()));
+            }
+        }
+    }
+
+    // One statement per execution; a JDBC batch counts once
+    static class SqlTimingListener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (RequestTimings.isActive()) {
+                execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+            if (startedAt != null) {
+                RequestTimings.record(RequestTimings.Phase.DB, startedAt);
+            }
+        }
+    }
+
+    static class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+        TimedJacksonConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            long started = System.nanoTime();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                RequestTimings.record(RequestTimings.Phase.SERIALIZE, started);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kushyanth.inventary.config;
+
+import com.kushyanth.inventary.util.RequestTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects {@link RequestTimings} for each request and returns them in a
+ * {@code Server-Timing} header. The body is buffered until the handler finishes so the
+ * header can include serialization time. Streaming exports are passed through unbuffered
+ * and get no header, only the slow request log line. Requests slower than the threshold
+ * are logged with the same breakdown.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    // Written to the client while rows are read; buffering them would hold the whole export in memory
+    private static final String STREAMED_PATH_PREFIX = "/api/export/";
+
+    private final long slowRequestThresholdNanos;
+
+    public ServerTimingFilter(long slowRequestThresholdMs) {
+        this.slowRequestThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestThresholdMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper bufferedResponse = isStreamed(request)
+                ? null : new ContentCachingResponseWrapper(response);
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            filterChain.doFilter(request, bufferedResponse != null ? bufferedResponse : response);
+        } finally {
+            RequestTimings.end();
+            if (bufferedResponse != null) {
+                bufferedResponse.setHeader("Server-Timing", timings.toServerTiming());
+            }
+            if (timings.getTotalNanos() >= slowRequestThresholdNanos) {
+                logger.warn("Slow request method={} uri={} status={} {}", request.getMethod(),
+                        request.getRequestURI(), response.getStatus(), timings.toLogFields());
+            }
+            if (bufferedResponse != null) {
+                bufferedResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private static boolean isStreamed(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + STREAMED_PATH_PREFIX);
+    }
+}
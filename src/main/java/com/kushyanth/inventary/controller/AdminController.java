@@ -0,0 +1,55 @@
+package com.kushyanth.inventary.controller;
+
+import com.kushyanth.inventary.dto.UserActiveRequest;
+import com.kushyanth.inventary.dto.UserRolesRequest;
+import com.kushyanth.inventary.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+// Every change here revokes the tokens already issued to the user
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private UserService userService;
+
+    @PutMapping("/users/{id}/roles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> updateRoles(@PathVariable Long id, @Valid @RequestBody UserRolesRequest request) {
+        try {
+            userService.updateRoles(id, request.getRoles());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/users/{id}/active")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> setActive(@PathVariable Long id, @Valid @RequestBody UserActiveRequest request) {
+        try {
+            userService.setActive(id, request.getActive());
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/users/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id) {
+        try {
+            userService.revokeTokens(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
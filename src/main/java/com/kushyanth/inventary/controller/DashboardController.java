@@ -1,8 +1,11 @@
 package com.kushyanth.inventary.controller;
 
 import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.entity.NotificationDeadLetter;
 import com.kushyanth.inventary.service.AlertService;
 import com.kushyanth.inventary.service.InventoryService;
+import com.kushyanth.inventary.service.InventoryStatsService;
+import com.kushyanth.inventary.service.LowStockAlertDispatcher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -26,60 +29,16 @@ public class DashboardController {
     @Autowired
     private AlertService alertService;
 
+    @Autowired
+    private InventoryStatsService inventoryStatsService;
+
+    @Autowired
+    private LowStockAlertDispatcher lowStockAlertDispatcher;
+
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Get all active items
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
-        Page<InventoryItem> allItems = inventoryService.getAllItems(pageable);
-        
-        // Calculate basic stats
-        List<InventoryItem> items = allItems.getContent();
-        int totalItems = items.size();
-        long totalQuantity = items.stream().mapToLong(InventoryItem::getQuantity).sum();
-        List<InventoryItem> lowStockItems = inventoryService.getLowStockItems();
-        int lowStockCount = lowStockItems.size();
-        
-        // Calculate category distribution
-        Map<String, Long> categoryDistribution = new HashMap<>();
-        items.stream()
-             .filter(item -> item.getCategory() != null)
-             .forEach(item -> categoryDistribution.merge(item.getCategory(), 1L, Long::sum));
-        
-        // Calculate supplier distribution
-        Map<String, Long> supplierDistribution = new HashMap<>();
-        items.stream()
-             .filter(item -> item.getSupplierName() != null)
-             .forEach(item -> supplierDistribution.merge(item.getSupplierName(), 1L, Long::sum));
-        
-        // Calculate location distribution
-        Map<String, Long> locationDistribution = new HashMap<>();
-        items.stream()
-             .filter(item -> item.getLocation() != null)
-             .forEach(item -> locationDistribution.merge(item.getLocation(), 1L, Long::sum));
-        
-        // Calculate stock status distribution
-        long healthyStockCount = items.stream()
-                .filter(item -> !item.isLowStock())
-                .count();
-        
-        stats.put("totalItems", totalItems);
-        stats.put("totalQuantity", totalQuantity);
-        stats.put("lowStockCount", lowStockCount);
-        stats.put("healthyStockCount", healthyStockCount);
-        stats.put("categoryDistribution", categoryDistribution);
-        stats.put("supplierDistribution", supplierDistribution);
-        stats.put("locationDistribution", locationDistribution);
-        
-        // Stock status for charts
-        Map<String, Long> stockStatus = new HashMap<>();
-        stockStatus.put("healthy", healthyStockCount);
-        stockStatus.put("lowStock", (long) lowStockCount);
-        stats.put("stockStatus", stockStatus);
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(inventoryStatsService.getDashboardStats());
     }
 
     @GetMapping("/low-stock-items")
@@ -92,23 +51,13 @@ public class DashboardController {
     @GetMapping("/top-categories")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
     public ResponseEntity<Map<String, Long>> getTopCategories(@RequestParam(defaultValue = "5") int limit) {
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
-        Page<InventoryItem> allItems = inventoryService.getAllItems(pageable);
-        
-        Map<String, Long> categoryCount = new HashMap<>();
-        allItems.getContent().stream()
-                .filter(item -> item.getCategory() != null)
-                .forEach(item -> categoryCount.merge(item.getCategory(), 1L, Long::sum));
-        
-        // Sort and limit
-        Map<String, Long> topCategories = categoryCount.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(limit)
-                .collect(HashMap::new,
-                        (map, entry) -> map.put(entry.getKey(), entry.getValue()),
-                        HashMap::putAll);
-        
-        return ResponseEntity.ok(topCategories);
+        return ResponseEntity.ok(inventoryService.getTopCategories(limit));
+    }
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(inventoryService.getItemCacheStats());
     }
 
     @PostMapping("/check-alerts")
@@ -133,4 +82,37 @@ public class DashboardController {
         Pageable pageable = PageRequest.of(page, size);
         return ResponseEntity.ok(inventoryService.getAllChangeLogs(pageable));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/recent-activity/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<Object> scrollRecentActivity(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            return ResponseEntity.ok(inventoryService.scrollChangeLogs(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/alerts/dead-letters")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Page<NotificationDeadLetter>> getDeadLetters(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(lowStockAlertDispatcher.getDeadLetters(pageable));
+    }
+
+    @PostMapping("/alerts/dead-letters/{id}/retry")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> retryDeadLetter(@PathVariable Long id) {
+        try {
+            lowStockAlertDispatcher.retryDeadLetter(id);
+            return ResponseEntity.accepted().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
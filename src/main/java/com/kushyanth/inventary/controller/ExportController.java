@@ -0,0 +1,77 @@
+package com.kushyanth.inventary.controller;
+
+import com.kushyanth.inventary.service.DataFormat;
+import com.kushyanth.inventary.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+// Exports are written straight to the response as rows are read, never collected into a list
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/items")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
+    public void exportItems(@RequestParam(defaultValue = "csv") String format,
+                            HttpServletResponse response) throws IOException {
+        DataFormat exportFormat = startDownload(response, format, "items");
+        if (exportFormat != null) {
+            exportService.exportItems(exportFormat, response.getOutputStream());
+        }
+    }
+
+    @GetMapping("/items/low-stock")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
+    public void exportLowStockItems(@RequestParam(defaultValue = "csv") String format,
+                                    HttpServletResponse response) throws IOException {
+        DataFormat exportFormat = startDownload(response, format, "low-stock-items");
+        if (exportFormat != null) {
+            exportService.exportLowStockItems(exportFormat, response.getOutputStream());
+        }
+    }
+
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER')")
+    public void exportChangeLogs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        if (startDate.isAfter(endDate)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        DataFormat exportFormat = startDownload(response, format, "changes");
+        if (exportFormat != null) {
+            exportService.exportChangeLogs(startDate, endDate, exportFormat, response.getOutputStream());
+        }
+    }
+
+    // Sets the download headers, or answers 400 and returns null for an unknown format
+    private DataFormat startDownload(HttpServletResponse response, String format, String name)
+            throws IOException {
+        DataFormat exportFormat;
+        try {
+            exportFormat = DataFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + exportFormat.getExtension() + "\"");
+        return exportFormat;
+    }
+}
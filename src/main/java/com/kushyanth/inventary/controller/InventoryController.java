@@ -1,20 +1,35 @@
 package com.kushyanth.inventary.controller;
 
+import com.kushyanth.inventary.dto.BatchStockUpdateRequest;
+import com.kushyanth.inventary.dto.BatchStockUpdateResponse;
+import com.kushyanth.inventary.dto.ChangeLogView;
+import com.kushyanth.inventary.dto.CursorPage;
+import com.kushyanth.inventary.dto.FacetValues;
 import com.kushyanth.inventary.dto.InventoryItemRequest;
+import com.kushyanth.inventary.dto.ItemImportResponse;
+import com.kushyanth.inventary.dto.StockDeltaRequest;
+import com.kushyanth.inventary.dto.StockLevelResponse;
 import com.kushyanth.inventary.dto.StockUpdateRequest;
-import com.kushyanth.inventary.entity.InventoryChangeLog;
 import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.exception.InsufficientStockException;
+import com.kushyanth.inventary.exception.VersionConflictException;
+import com.kushyanth.inventary.service.DataFormat;
 import com.kushyanth.inventary.service.InventoryService;
+import com.kushyanth.inventary.service.ItemImportService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -25,6 +40,9 @@ public class InventoryController {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private ItemImportService itemImportService;
+
     @GetMapping("/items")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
     public ResponseEntity<Page<InventoryItem>> getAllItems(
@@ -43,11 +61,25 @@ public class InventoryController {
         return ResponseEntity.ok(items);
     }
 
+    @GetMapping("/items/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<CursorPage<InventoryItem>> scrollItems(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        try {
+            return ResponseEntity.ok(inventoryService.scrollItems(cursor, size, sortBy, sortDir));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/items/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
     public ResponseEntity<InventoryItem> getItemById(@PathVariable Long id) {
         return inventoryService.getItemById(id)
-                .map(item -> ResponseEntity.ok().body(item))
+                .map(item -> ResponseEntity.ok().eTag(eTag(item)).body(item))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -55,7 +87,7 @@ public class InventoryController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
     public ResponseEntity<InventoryItem> getItemBySku(@PathVariable String sku) {
         return inventoryService.getItemBySku(sku)
-                .map(item -> ResponseEntity.ok().body(item))
+                .map(item -> ResponseEntity.ok().eTag(eTag(item)).body(item))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -70,13 +102,24 @@ public class InventoryController {
         }
     }
 
+    // If-Match takes the ETag of a previous read; a stale one is answered with 412
     @PutMapping("/items/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER')")
     public ResponseEntity<InventoryItem> updateItem(@PathVariable Long id, 
-                                                   @Valid @RequestBody InventoryItemRequest request) {
+                                                   @Valid @RequestBody InventoryItemRequest request,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                   String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            InventoryItem updatedItem = inventoryService.updateItem(id, request);
-            return ResponseEntity.ok(updatedItem);
+            InventoryItem updatedItem = inventoryService.updateItem(id, request, expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(updatedItem)).body(updatedItem);
+        } catch (VersionConflictException e) {
+            return conflict(expectedVersion);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -85,15 +128,65 @@ public class InventoryController {
     @PutMapping("/items/{id}/stock")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER')")
     public ResponseEntity<InventoryItem> updateStock(@PathVariable Long id,
-                                                    @Valid @RequestBody StockUpdateRequest request) {
+                                                    @Valid @RequestBody StockUpdateRequest request,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                    String ifMatch) {
+        Long expectedVersion;
         try {
-            InventoryItem updatedItem = inventoryService.updateStock(id, request);
-            return ResponseEntity.ok(updatedItem);
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            InventoryItem updatedItem = inventoryService.updateStock(id, request, expectedVersion);
+            // A change buffered by the stock ledger has no version until it is flushed
+            if (updatedItem.getVersion() == null) {
+                return ResponseEntity.ok(updatedItem);
+            }
+            return ResponseEntity.ok().eTag(eTag(updatedItem)).body(updatedItem);
+        } catch (VersionConflictException e) {
+            return conflict(expectedVersion);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @PatchMapping("/items/{id}/stock")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER')")
+    public ResponseEntity<StockLevelResponse> adjustStock(@PathVariable Long id,
+                                                         @Valid @RequestBody StockDeltaRequest request) {
+        try {
+            StockLevelResponse stockLevel = inventoryService.adjustStock(id, request);
+            return ResponseEntity.ok(stockLevel);
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/items/stock:batch")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER')")
+    public ResponseEntity<BatchStockUpdateResponse> updateStockBatch(
+            @Valid @RequestBody BatchStockUpdateRequest request) {
+        BatchStockUpdateResponse response = inventoryService.updateStockBatch(request.getUpdates());
+        return ResponseEntity.ok(response);
+    }
+
+    // The body is read as a stream, so imports of any size are not buffered in memory
+    @PostMapping("/items/import")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER')")
+    public ResponseEntity<ItemImportResponse> importItems(@RequestParam(defaultValue = "csv") String format,
+                                                          @RequestParam(defaultValue = "false") boolean upsert,
+                                                          InputStream body) throws IOException {
+        try {
+            ItemImportResponse response = itemImportService.importItems(body, DataFormat.from(format), upsert);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("/items/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteItem(@PathVariable Long id) {
@@ -112,6 +205,16 @@ public class InventoryController {
         return ResponseEntity.ok(lowStockItems);
     }
 
+    @GetMapping("/items/low-stock/paged")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<Page<InventoryItem>> getLowStockItemsPaged(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(inventoryService.getLowStockItems(pageable));
+    }
+
     @GetMapping("/items/search")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
     public ResponseEntity<Page<InventoryItem>> searchItems(
@@ -140,49 +243,105 @@ public class InventoryController {
         return ResponseEntity.ok(items);
     }
 
+    // Served from the facet registry; a matching If-None-Match is answered with 304
     @GetMapping("/metadata/categories")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
     public ResponseEntity<List<String>> getCategories() {
-        List<String> categories = inventoryService.getDistinctCategories();
-        return ResponseEntity.ok(categories);
+        FacetValues categories = inventoryService.getDistinctCategories();
+        return ResponseEntity.ok().eTag(categories.getETag()).body(categories.getValues());
     }
 
     @GetMapping("/metadata/suppliers")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
     public ResponseEntity<List<String>> getSuppliers() {
-        List<String> suppliers = inventoryService.getDistinctSuppliers();
-        return ResponseEntity.ok(suppliers);
+        FacetValues suppliers = inventoryService.getDistinctSuppliers();
+        return ResponseEntity.ok().eTag(suppliers.getETag()).body(suppliers.getValues());
     }
 
     @GetMapping("/metadata/locations")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
     public ResponseEntity<List<String>> getLocations() {
-        List<String> locations = inventoryService.getDistinctLocations();
-        return ResponseEntity.ok(locations);
+        FacetValues locations = inventoryService.getDistinctLocations();
+        return ResponseEntity.ok().eTag(locations.getETag()).body(locations.getValues());
     }
 
     @GetMapping("/items/{id}/history")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
-    public ResponseEntity<Page<InventoryChangeLog>> getItemHistory(
+    public ResponseEntity<Page<ChangeLogView>> getItemHistory(
             @PathVariable Long id,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<InventoryChangeLog> history = inventoryService.getItemHistory(id, pageable);
-        
-        return ResponseEntity.ok(history);
+        try {
+            Page<ChangeLogView> history = inventoryService.getItemHistory(id, pageable);
+            return ResponseEntity.ok(history);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @GetMapping("/changes")
     @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER')")
-    public ResponseEntity<Page<InventoryChangeLog>> getAllChangeLogs(
+    public ResponseEntity<Page<ChangeLogView>> getAllChangeLogs(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<InventoryChangeLog> changes = inventoryService.getAllChangeLogs(pageable);
+        Page<ChangeLogView> changes = inventoryService.getAllChangeLogs(pageable);
         
         return ResponseEntity.ok(changes);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/items/{id}/history/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER') or hasRole('VIEWER')")
+    public ResponseEntity<CursorPage<ChangeLogView>> scrollItemHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            return ResponseEntity.ok(inventoryService.scrollItemHistory(id, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/changes/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE_MANAGER')")
+    public ResponseEntity<CursorPage<ChangeLogView>> scrollChangeLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            return ResponseEntity.ok(inventoryService.scrollChangeLogs(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static String eTag(InventoryItem item) {
+        return "\"" + item.getVersion() + "\"";
+    }
+
+    // The version named by an If-Match header, or null when there is none or it is "*"
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("Malformed If-Match: " + ifMatch);
+        }
+        return Long.valueOf(tag.substring(1, tag.length() - 1));
+    }
+
+    // 412 when the client's If-Match was stale, 409 when a concurrent write won every retry
+    private static <T> ResponseEntity<T> conflict(Long expectedVersion) {
+        return ResponseEntity.status(expectedVersion != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.kushyanth.inventary.dto;
+
+import jakarta.validation.constraints.Size;
+
+// One line of a batch stock update, addressed by item id or, if no id is given, by SKU
+public class BatchStockUpdateLine extends StockUpdateRequest {
+    private Long itemId;
+
+    @Size(max = 50)
+    private String sku;
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+}
@@ -0,0 +1,22 @@
+package com.kushyanth.inventary.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchStockUpdateRequest {
+    @NotEmpty
+    @Size(max = 5000)
+    @Valid
+    private List<BatchStockUpdateLine> updates;
+
+    public List<BatchStockUpdateLine> getUpdates() {
+        return updates;
+    }
+
+    public void setUpdates(List<BatchStockUpdateLine> updates) {
+        this.updates = updates;
+    }
+}
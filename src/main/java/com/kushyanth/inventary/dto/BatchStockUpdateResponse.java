@@ -0,0 +1,97 @@
+package com.kushyanth.inventary.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchStockUpdateResponse {
+    private int updated;
+    private int failed;
+    private List<LineResult> results = new ArrayList<>();
+
+    public void addResult(LineResult result) {
+        results.add(result);
+        if (result.getStatus() == LineStatus.UPDATED) {
+            updated++;
+        } else {
+            failed++;
+        }
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<LineResult> getResults() {
+        return results;
+    }
+
+    public enum LineStatus {
+        UPDATED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    // Outcome of a single line, in the same order as the request
+    public static class LineResult {
+        private int index;
+        private Long itemId;
+        private String sku;
+        private LineStatus status;
+        private Integer oldQuantity;
+        private Integer newQuantity;
+        private String message;
+
+        public static LineResult updated(int index, Long itemId, String sku, Integer oldQuantity, Integer newQuantity) {
+            LineResult result = new LineResult();
+            result.index = index;
+            result.itemId = itemId;
+            result.sku = sku;
+            result.status = LineStatus.UPDATED;
+            result.oldQuantity = oldQuantity;
+            result.newQuantity = newQuantity;
+            return result;
+        }
+
+        public static LineResult failed(int index, Long itemId, String sku, LineStatus status, String message) {
+            LineResult result = new LineResult();
+            result.index = index;
+            result.itemId = itemId;
+            result.sku = sku;
+            result.status = status;
+            result.message = message;
+            return result;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getItemId() {
+            return itemId;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public LineStatus getStatus() {
+            return status;
+        }
+
+        public Integer getOldQuantity() {
+            return oldQuantity;
+        }
+
+        public Integer getNewQuantity() {
+            return newQuantity;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.kushyanth.inventary.dto;
+
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+
+import java.time.LocalDateTime;
+
+// Change log row as it travels through the write pipeline (and its journal) before insertion
+public class ChangeLogEntry {
+    private long sequence;
+    private Long itemId;
+    private Integer oldQuantity;
+    private Integer newQuantity;
+    private InventoryChangeLog.ChangeType changeType;
+    private String reason;
+    private String changedBy;
+    private LocalDateTime changeDate;
+
+    public ChangeLogEntry() {
+    }
+
+    public ChangeLogEntry(Long itemId, Integer oldQuantity, Integer newQuantity,
+                          InventoryChangeLog.ChangeType changeType, String reason, String changedBy) {
+        this.itemId = itemId;
+        this.oldQuantity = oldQuantity;
+        this.newQuantity = newQuantity;
+        this.changeType = changeType;
+        this.reason = reason;
+        this.changedBy = changedBy;
+        this.changeDate = LocalDateTime.now();
+    }
+
+    public Integer getQuantityChange() {
+        return newQuantity - oldQuantity;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public Integer getOldQuantity() {
+        return oldQuantity;
+    }
+
+    public void setOldQuantity(Integer oldQuantity) {
+        this.oldQuantity = oldQuantity;
+    }
+
+    public Integer getNewQuantity() {
+        return newQuantity;
+    }
+
+    public void setNewQuantity(Integer newQuantity) {
+        this.newQuantity = newQuantity;
+    }
+
+    public InventoryChangeLog.ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(InventoryChangeLog.ChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String getChangedBy() {
+        return changedBy;
+    }
+
+    public void setChangedBy(String changedBy) {
+        this.changedBy = changedBy;
+    }
+
+    public LocalDateTime getChangeDate() {
+        return changeDate;
+    }
+
+    public void setChangeDate(LocalDateTime changeDate) {
+        this.changeDate = changeDate;
+    }
+}
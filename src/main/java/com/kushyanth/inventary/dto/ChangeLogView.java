@@ -0,0 +1,95 @@
+package com.kushyanth.inventary.dto;
+
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+
+import java.time.LocalDateTime;
+
+// Change log row as returned by the history endpoints, with the item's SKU and name flattened in
+public class ChangeLogView {
+    private Long id;
+    private Long itemId;
+    private String itemSku;
+    private String itemName;
+    private Integer oldQuantity;
+    private Integer newQuantity;
+    private Integer quantityChange;
+    private InventoryChangeLog.ChangeType changeType;
+    private String reason;
+    private String changedBy;
+    private LocalDateTime changeDate;
+
+    // Used by JPQL constructor expressions, so the argument order must match the queries
+    public ChangeLogView(Long id, Long itemId, String itemSku, String itemName, Integer oldQuantity,
+                         Integer newQuantity, Integer quantityChange, InventoryChangeLog.ChangeType changeType,
+                         String reason, String changedBy, LocalDateTime changeDate) {
+        this.id = id;
+        this.itemId = itemId;
+        this.itemSku = itemSku;
+        this.itemName = itemName;
+        this.oldQuantity = oldQuantity;
+        this.newQuantity = newQuantity;
+        this.quantityChange = quantityChange;
+        this.changeType = changeType;
+        this.reason = reason;
+        this.changedBy = changedBy;
+        this.changeDate = changeDate;
+    }
+
+    // The item must already be loaded (fetch join or entity graph), otherwise this triggers a query per row
+    public static ChangeLogView of(InventoryChangeLog changeLog) {
+        return of(changeLog, changeLog.getInventoryItem());
+    }
+
+    // For change logs whose item was loaded separately
+    public static ChangeLogView of(InventoryChangeLog changeLog, InventoryItem item) {
+        return new ChangeLogView(changeLog.getId(), item.getId(), item.getSku(), item.getName(),
+                changeLog.getOldQuantity(), changeLog.getNewQuantity(), changeLog.getQuantityChange(),
+                changeLog.getChangeType(), changeLog.getReason(), changeLog.getChangedBy(),
+                changeLog.getChangeDate());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public String getItemSku() {
+        return itemSku;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public Integer getOldQuantity() {
+        return oldQuantity;
+    }
+
+    public Integer getNewQuantity() {
+        return newQuantity;
+    }
+
+    public Integer getQuantityChange() {
+        return quantityChange;
+    }
+
+    public InventoryChangeLog.ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public String getChangedBy() {
+        return changedBy;
+    }
+
+    public LocalDateTime getChangeDate() {
+        return changeDate;
+    }
+}
@@ -0,0 +1,8 @@
+package com.kushyanth.inventary.dto;
+
+// Projection for GROUP BY queries over a single item dimension (category, supplier, location)
+public interface DimensionCount {
+    String getName();
+
+    Long getItemCount();
+}
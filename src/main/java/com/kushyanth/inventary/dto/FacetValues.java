@@ -0,0 +1,22 @@
+package com.kushyanth.inventary.dto;
+
+import java.util.List;
+
+// The sorted values of one item dimension with the ETag of exactly this list
+public class FacetValues {
+    private final List<String> values;
+    private final String eTag;
+
+    public FacetValues(List<String> values, String eTag) {
+        this.values = values;
+        this.eTag = eTag;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
@@ -0,0 +1,38 @@
+package com.kushyanth.inventary.dto;
+
+// A response kept for an Idempotency-Key, with the hash of the request that produced it
+public class IdempotentResponse {
+    private final String requestHash;
+    private final int status;
+    private final String contentType;
+    private final String eTag;
+    private final byte[] body;
+
+    public IdempotentResponse(String requestHash, int status, String contentType, String eTag, byte[] body) {
+        this.requestHash = requestHash;
+        this.status = status;
+        this.contentType = contentType;
+        this.eTag = eTag;
+        this.body = body;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,10 @@
+package com.kushyanth.inventary.dto;
+
+// Projection for the catalog-wide totals shown on the dashboard
+public interface InventoryTotals {
+    Long getItemCount();
+
+    Long getTotalQuantity();
+
+    Long getLowStockCount();
+}
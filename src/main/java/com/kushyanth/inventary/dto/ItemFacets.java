@@ -0,0 +1,12 @@
+package com.kushyanth.inventary.dto;
+
+// Projection used to load the in-memory facet registry without fetching whole items
+public interface ItemFacets {
+    Long getId();
+
+    String getCategory();
+
+    String getSupplierName();
+
+    String getLocation();
+}
@@ -0,0 +1,77 @@
+package com.kushyanth.inventary.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ItemImportResponse {
+    // Only the first errors are listed so a bad file of any size gives a bounded response
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long inserted;
+    private long updated;
+    private long failed;
+    private boolean errorsTruncated;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addInserted(int count) {
+        inserted += count;
+    }
+
+    public void addUpdated(int count) {
+        updated += count;
+    }
+
+    public void addError(long row, String sku, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, sku, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    // row is the line number for NDJSON and the line the record starts on for CSV
+    public static class RowError {
+        private long row;
+        private String sku;
+        private String message;
+
+        public RowError(long row, String sku, String message) {
+            this.row = row;
+            this.sku = sku;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.kushyanth.inventary.dto;
+
+// Projection used to load the in-memory low-stock index without fetching whole items
+public interface LowStockLevel {
+    Long getId();
+
+    Integer getQuantity();
+
+    Integer getReorderThreshold();
+
+    Long getVersion();
+}
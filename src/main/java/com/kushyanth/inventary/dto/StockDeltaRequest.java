@@ -0,0 +1,52 @@
+package com.kushyanth.inventary.dto;
+
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class StockDeltaRequest {
+    // Relative change, e.g. +5 for a receipt or -1 for a pick
+    @NotNull
+    private Integer delta;
+
+    @NotNull
+    private InventoryChangeLog.ChangeType changeType;
+
+    @Size(max = 500)
+    private String reason;
+
+    // When set, a removal larger than the stock on hand leaves zero instead of being rejected
+    private boolean floorAtZero;
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public InventoryChangeLog.ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(InventoryChangeLog.ChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public boolean isFloorAtZero() {
+        return floorAtZero;
+    }
+
+    public void setFloorAtZero(boolean floorAtZero) {
+        this.floorAtZero = floorAtZero;
+    }
+}
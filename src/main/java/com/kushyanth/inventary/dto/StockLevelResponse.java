@@ -0,0 +1,44 @@
+package com.kushyanth.inventary.dto;
+
+public class StockLevelResponse {
+    private Long itemId;
+    private String sku;
+    private Integer oldQuantity;
+    private Integer quantity;
+    private Integer reorderThreshold;
+    private boolean lowStock;
+
+    public StockLevelResponse(Long itemId, String sku, Integer oldQuantity, Integer quantity,
+                              Integer reorderThreshold, boolean lowStock) {
+        this.itemId = itemId;
+        this.sku = sku;
+        this.oldQuantity = oldQuantity;
+        this.quantity = quantity;
+        this.reorderThreshold = reorderThreshold;
+        this.lowStock = lowStock;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public Integer getOldQuantity() {
+        return oldQuantity;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public Integer getReorderThreshold() {
+        return reorderThreshold;
+    }
+
+    public boolean isLowStock() {
+        return lowStock;
+    }
+}
@@ -0,0 +1,16 @@
+package com.kushyanth.inventary.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class UserActiveRequest {
+    @NotNull
+    private Boolean active;
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,19 @@
+package com.kushyanth.inventary.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.Set;
+
+public class UserRolesRequest {
+    // The role names signup accepts: admin, manager, viewer
+    @NotEmpty
+    private Set<String> roles;
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Set<String> roles) {
+        this.roles = roles;
+    }
+}
@@ -1,7 +1,6 @@
 package com.kushyanth.inventary.entity;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
@@ -30,8 +29,7 @@ public class InventoryChangeLog {
     @Column(name = "quantity_change")
     private Integer quantityChange;
 
-    @NotBlank
-    @Size(max = 50)
+    @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "change_type")
     private ChangeType changeType;
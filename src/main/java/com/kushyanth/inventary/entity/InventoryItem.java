@@ -1,5 +1,6 @@
 package com.kushyanth.inventary.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -10,9 +11,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "inventory_items",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = "sku")
+        },
+        indexes = {
+                @Index(name = "idx_inventory_items_active_low_stock", columnList = "is_active, low_stock")
         })
 public class InventoryItem {
     @Id
@@ -76,14 +81,28 @@ public class InventoryItem {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    // Stored copy of quantity <= reorderThreshold so low-stock reads can use an index
+    @Column(name = "low_stock")
+    private Boolean lowStock;
+
+    // Bumped on every write, including the bulk UPDATEs that bypass Hibernate; served as the ETag
+    @Version
+    private Long version;
+
     public InventoryItem() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
 
+    @PrePersist
+    public void prePersist() {
+        this.lowStock = isLowStock();
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.lowStock = isLowStock();
     }
 
     // Helper method to check if item is low stock
@@ -227,4 +246,12 @@ public class InventoryItem {
     public void setIsActive(Boolean isActive) {
         this.isActive = isActive;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,102 @@
+package com.kushyanth.inventary.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+// An outbound notification that could not be delivered after all retries
+@Entity
+@Table(name = "notification_dead_letters")
+public class NotificationDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Size(max = 255)
+    private String recipient;
+
+    @Size(max = 255)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    private Integer attempts;
+
+    @Size(max = 1000)
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public NotificationDeadLetter() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public NotificationDeadLetter(String recipient, String subject, String body, Integer attempts, String lastError) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.attempts = attempts;
+        this.lastError = lastError;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -54,6 +54,10 @@ public class User {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    // Embedded in issued tokens; incrementing it revokes every token issued before
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+
     public User() {}
 
     public User(String username, String email, String password) {
@@ -149,4 +153,12 @@ public class User {
     public void setIsActive(Boolean isActive) {
         this.isActive = isActive;
     }
-}
\ No newline at end of file
+
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+}
@@ -0,0 +1,37 @@
+package com.kushyanth.inventary.event;
+
+/**
+ * Published by InventoryService for every item write. {@code before} is null for a
+ * newly created item; a soft delete carries an inactive {@code after} snapshot.
+ */
+public class InventoryItemChangedEvent {
+    private final ItemSnapshot before;
+    private final ItemSnapshot after;
+
+    public InventoryItemChangedEvent(ItemSnapshot before, ItemSnapshot after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public ItemSnapshot getBefore() {
+        return before;
+    }
+
+    public ItemSnapshot getAfter() {
+        return after;
+    }
+
+    public Long getItemId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    // True when the item was counted as an active item before the write
+    public boolean wasActive() {
+        return before != null && before.isActive();
+    }
+
+    // True when the item counts as an active item after the write
+    public boolean isActive() {
+        return after != null && after.isActive();
+    }
+}
@@ -0,0 +1,122 @@
+package com.kushyanth.inventary.event;
+
+import com.kushyanth.inventary.entity.InventoryItem;
+
+/**
+ * Immutable copy of the item fields that in-memory views (dashboard aggregates,
+ * indexes, caches) are derived from. Taken before and after a write so listeners
+ * can apply the difference without reloading the entity. The version is the row's
+ * version after the write; after-commit listeners run on the committing threads in no
+ * particular order, so they use it to drop a snapshot older than one already applied.
+ */
+public class ItemSnapshot {
+    private final Long id;
+    private final String sku;
+    private final String name;
+    private final String description;
+    private final int quantity;
+    private final int reorderThreshold;
+    private final String category;
+    private final String supplierName;
+    private final String supplierEmail;
+    private final String location;
+    private final boolean active;
+    private final Long version;
+
+    public ItemSnapshot(Long id, String sku, String name, String description, Integer quantity,
+                        Integer reorderThreshold, String category, String supplierName,
+                        String supplierEmail, String location, Boolean active, Long version) {
+        this.id = id;
+        this.sku = sku;
+        this.name = name;
+        this.description = description;
+        this.quantity = quantity != null ? quantity : 0;
+        this.reorderThreshold = reorderThreshold != null ? reorderThreshold : 0;
+        this.category = category;
+        this.supplierName = supplierName;
+        this.supplierEmail = supplierEmail;
+        this.location = location;
+        this.active = Boolean.TRUE.equals(active);
+        this.version = version;
+    }
+
+    public static ItemSnapshot of(InventoryItem item) {
+        return new ItemSnapshot(
+                item.getId(),
+                item.getSku(),
+                item.getName(),
+                item.getDescription(),
+                item.getQuantity(),
+                item.getReorderThreshold(),
+                item.getCategory(),
+                item.getSupplierName(),
+                item.getSupplierEmail(),
+                item.getLocation(),
+                item.getIsActive(),
+                item.getVersion()
+        );
+    }
+
+    public ItemSnapshot withQuantity(int quantity) {
+        return new ItemSnapshot(id, sku, name, description, quantity, reorderThreshold,
+                category, supplierName, supplierEmail, location, active, version);
+    }
+
+    // Same rule as InventoryItem.isLowStock()
+    public boolean isLowStock() {
+        return quantity <= reorderThreshold;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public int getReorderThreshold() {
+        return reorderThreshold;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getSupplierName() {
+        return supplierName;
+    }
+
+    public String getSupplierEmail() {
+        return supplierEmail;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    // False only when both versions are known and this snapshot is not newer
+    public boolean isNewerThan(Long appliedVersion) {
+        return version == null || appliedVersion == null || version > appliedVersion;
+    }
+}
@@ -0,0 +1,17 @@
+package com.kushyanth.inventary.event;
+
+/**
+ * Published by UserService when a user's token version is bumped, so tokens issued
+ * before the change stop being accepted.
+ */
+public class UserTokensRevokedEvent {
+    private final String username;
+
+    public UserTokensRevokedEvent(String username) {
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
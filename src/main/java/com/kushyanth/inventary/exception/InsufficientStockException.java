@@ -0,0 +1,8 @@
+package com.kushyanth.inventary.exception;
+
+// Thrown when a relative stock change would take an item's quantity below zero
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.kushyanth.inventary.exception;
+
+// Thrown when an item write is based on a version that is no longer current
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
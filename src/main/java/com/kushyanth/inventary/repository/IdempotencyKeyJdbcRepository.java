@@ -0,0 +1,51 @@
+package com.kushyanth.inventary.repository;
+
+import com.kushyanth.inventary.dto.IdempotentResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stored Idempotency-Key responses. Each statement runs on its own, outside the
+ * transaction of the request it belongs to.
+ */
+@Repository
+public class IdempotencyKeyJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Optional<IdempotentResponse> find(String keyHash, LocalDateTime now) {
+        List<IdempotentResponse> rows = jdbcTemplate.query(
+                "SELECT request_hash, status_code, content_type, etag, body FROM idempotency_keys " +
+                "WHERE key_hash = ? AND expires_at > ?",
+                (rs, rowNum) -> new IdempotentResponse(rs.getString(1), rs.getInt(2), rs.getString(3),
+                        rs.getString(4), rs.getBytes(5)),
+                keyHash, Timestamp.valueOf(now));
+        return rows.stream().findFirst();
+    }
+
+    // False when the key was stored meanwhile, e.g. by another instance
+    public boolean insert(String keyHash, IdempotentResponse response, LocalDateTime createdAt,
+                          LocalDateTime expiresAt) {
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (key_hash, request_hash, status_code, content_type, " +
+                            "etag, body, created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    keyHash, response.getRequestHash(), response.getStatus(), response.getContentType(),
+                    response.getETag(), response.getBody(), Timestamp.valueOf(createdAt), Timestamp.valueOf(expiresAt));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public int deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", Timestamp.valueOf(now));
+    }
+}
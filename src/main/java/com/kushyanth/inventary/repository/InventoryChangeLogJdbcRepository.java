@@ -0,0 +1,45 @@
+package com.kushyanth.inventary.repository;
+
+import com.kushyanth.inventary.dto.ChangeLogEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC writer for change log rows. The entity uses IDENTITY ids, which makes
+ * Hibernate insert one row per round trip; this sends them as JDBC batches instead
+ * (rewritten to multi-row INSERTs by the MySQL driver). Runs in the caller's
+ * transaction.
+ */
+@Repository
+public class InventoryChangeLogJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_change_logs (inventory_item_id, old_quantity, new_quantity, quantity_change, " +
+            "change_type, reason, changed_by, change_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void batchInsert(List<ChangeLogEntry> changeLogs) {
+        if (changeLogs.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, changeLogs, BATCH_SIZE, (ps, changeLog) -> {
+            ps.setLong(1, changeLog.getItemId());
+            ps.setInt(2, changeLog.getOldQuantity());
+            ps.setInt(3, changeLog.getNewQuantity());
+            ps.setInt(4, changeLog.getQuantityChange());
+            ps.setString(5, changeLog.getChangeType().name());
+            ps.setString(6, changeLog.getReason());
+            ps.setString(7, changeLog.getChangedBy());
+            ps.setTimestamp(8, Timestamp.valueOf(changeLog.getChangeDate()));
+        });
+    }
+}
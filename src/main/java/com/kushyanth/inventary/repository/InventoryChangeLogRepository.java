@@ -1,29 +1,62 @@
 package com.kushyanth.inventary.repository;
 
+import com.kushyanth.inventary.dto.ChangeLogView;
 import com.kushyanth.inventary.entity.InventoryChangeLog;
 import com.kushyanth.inventary.entity.InventoryItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryChangeLogRepository extends JpaRepository<InventoryChangeLog, Long> {
     
+    // Flat view of a change log and its item, selected in one joined query instead of a lazy item fetch per row
+    String CHANGE_LOG_VIEW = "SELECT new com.kushyanth.inventary.dto.ChangeLogView(icl.id, i.id, i.sku, i.name, " +
+            "icl.oldQuantity, icl.newQuantity, icl.quantityChange, icl.changeType, icl.reason, icl.changedBy, " +
+            "icl.changeDate) FROM InventoryChangeLog icl JOIN icl.inventoryItem i ";
+
     List<InventoryChangeLog> findByInventoryItemOrderByChangeDateDesc(InventoryItem inventoryItem);
     
-    Page<InventoryChangeLog> findByInventoryItemOrderByChangeDateDesc(InventoryItem inventoryItem, Pageable pageable);
+    @Query(value = CHANGE_LOG_VIEW + "WHERE i.id = :itemId ORDER BY icl.changeDate DESC, icl.id DESC",
+           countQuery = "SELECT COUNT(icl) FROM InventoryChangeLog icl WHERE icl.inventoryItem.id = :itemId")
+    Page<ChangeLogView> findViewsByItemId(@Param("itemId") Long itemId, Pageable pageable);
+    
+    @Query(value = CHANGE_LOG_VIEW + "ORDER BY icl.changeDate DESC, icl.id DESC",
+           countQuery = "SELECT COUNT(icl) FROM InventoryChangeLog icl")
+    Page<ChangeLogView> findViews(Pageable pageable);
+    
+    // Keyset variants: seek past the last (sort key, id) seen instead of OFFSET, and no COUNT query.
+    // Across all items the page is read on its own, so idx_change_logs_date drives it rather than a
+    // join from the items; the caller loads the page's items in one more query.
+    Window<InventoryChangeLog> findAllBy(ScrollPosition position, Sort sort, Limit limit);
     
-    Page<InventoryChangeLog> findAllByOrderByChangeDateDesc(Pageable pageable);
+    // The item is fetched in the same query so the rows can be mapped to views. Takes the item
+    // rather than its id: inventoryItem.id would join the item a second time to filter on it.
+    @EntityGraph(attributePaths = "inventoryItem")
+    Window<InventoryChangeLog> findByInventoryItem(InventoryItem inventoryItem, ScrollPosition position, Sort sort,
+                                                   Limit limit);
     
-    @Query("SELECT icl FROM InventoryChangeLog icl WHERE icl.changeDate BETWEEN :startDate AND :endDate ORDER BY icl.changeDate DESC")
-    List<InventoryChangeLog> findByDateRange(@Param("startDate") LocalDateTime startDate,
-                                           @Param("endDate") LocalDateTime endDate);
+    // Export cursor over a date range, oldest first. Views are not managed, so nothing builds up in the
+    // persistence context however long the range; close the stream inside the transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = InventoryItemRepository.EXPORT_FETCH_SIZE))
+    @Query(CHANGE_LOG_VIEW + "WHERE icl.changeDate BETWEEN :startDate AND :endDate ORDER BY icl.changeDate, icl.id")
+    Stream<ChangeLogView> streamViewsByDateRange(@Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate);
     
     @Query("SELECT icl FROM InventoryChangeLog icl WHERE icl.changedBy = :username ORDER BY icl.changeDate DESC")
     Page<InventoryChangeLog> findByChangedBy(@Param("username") String username, Pageable pageable);
@@ -0,0 +1,167 @@
+package com.kushyanth.inventary.repository;
+
+import com.kushyanth.inventary.entity.InventoryItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plain JDBC writes for bulk item imports and stock ledger flushes, sent as JDBC batches like
+ * {@link InventoryChangeLogJdbcRepository}. The entity callbacks do not run here, so the
+ * rows are written with low_stock and the audit columns already set. Runs in the caller's
+ * transaction; in-memory views are updated from the events the caller publishes.
+ */
+@Repository
+public class InventoryItemJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_items (name, sku, description, quantity, reorder_threshold, unit_price, category, " +
+            "supplier_name, supplier_email, supplier_phone, location, created_at, updated_at, created_by, updated_by, " +
+            "is_active, low_stock) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE inventory_items SET name = ?, description = ?, quantity = ?, reorder_threshold = ?, " +
+            "unit_price = ?, category = ?, supplier_name = ?, supplier_email = ?, supplier_phone = ?, location = ?, " +
+            "updated_at = ?, updated_by = ?, low_stock = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    // low_stock is assigned first because MySQL evaluates SET left to right against the updated row
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE inventory_items SET " +
+            "low_stock = CASE WHEN quantity + ? <= reorder_threshold THEN TRUE ELSE FALSE END, " +
+            "quantity = quantity + ?, version = version + 1, updated_at = ?, updated_by = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Every SKU in the table, active or not, read through a cursor
+    public Set<String> findAllSkus() {
+        Set<String> skus = new HashSet<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("SELECT sku FROM inventory_items");
+            ps.setFetchSize(Integer.parseInt(InventoryItemRepository.EXPORT_FETCH_SIZE));
+            return ps;
+        }, (RowCallbackHandler) rs -> skus.add(rs.getString(1)));
+        return skus;
+    }
+
+    // Inserts the items in one batch and sets their generated ids and initial versions
+    public void batchInsert(List<InventoryItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        InventoryItem item = items.get(i);
+                        ps.setString(1, item.getName());
+                        ps.setString(2, item.getSku());
+                        ps.setString(3, item.getDescription());
+                        ps.setInt(4, item.getQuantity());
+                        ps.setInt(5, item.getReorderThreshold());
+                        ps.setObject(6, item.getUnitPrice(), Types.DECIMAL);
+                        ps.setString(7, item.getCategory());
+                        ps.setString(8, item.getSupplierName());
+                        ps.setString(9, item.getSupplierEmail());
+                        ps.setString(10, item.getSupplierPhone());
+                        ps.setString(11, item.getLocation());
+                        ps.setTimestamp(12, Timestamp.valueOf(item.getCreatedAt()));
+                        ps.setTimestamp(13, Timestamp.valueOf(item.getUpdatedAt()));
+                        ps.setString(14, item.getCreatedBy());
+                        ps.setString(15, item.getUpdatedBy());
+                        ps.setBoolean(16, true);
+                        ps.setBoolean(17, item.isLowStock());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < items.size(); i++) {
+            Object id = keys.get(i).values().iterator().next();
+            items.get(i).setId(((Number) id).longValue());
+            items.get(i).setVersion(0L);
+        }
+    }
+
+    /**
+     * Updates the items in one batch if their rows still have the items' versions, and
+     * advances the versions as Hibernate would.
+     *
+     * @throws OptimisticLockingFailureException if a row was changed or deleted since it was read
+     */
+    public void batchUpdate(List<InventoryItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, items, items.size(), (ps, item) -> {
+            ps.setString(1, item.getName());
+            ps.setString(2, item.getDescription());
+            ps.setInt(3, item.getQuantity());
+            ps.setInt(4, item.getReorderThreshold());
+            ps.setObject(5, item.getUnitPrice(), Types.DECIMAL);
+            ps.setString(6, item.getCategory());
+            ps.setString(7, item.getSupplierName());
+            ps.setString(8, item.getSupplierEmail());
+            ps.setString(9, item.getSupplierPhone());
+            ps.setString(10, item.getLocation());
+            ps.setTimestamp(11, Timestamp.valueOf(item.getUpdatedAt()));
+            ps.setString(12, item.getUpdatedBy());
+            ps.setBoolean(13, item.isLowStock());
+            ps.setLong(14, item.getId());
+            ps.setLong(15, item.getVersion());
+        });
+
+        // Drivers that rewrite batches report SUCCESS_NO_INFO instead of a row count
+        for (int i = 0; i < items.size(); i++) {
+            if (counts[0][i] == 0) {
+                throw new OptimisticLockingFailureException("Item " + items.get(i).getId()
+                        + " was changed by a concurrent write");
+            }
+        }
+        items.forEach(item -> item.setVersion(item.getVersion() + 1));
+    }
+
+    /**
+     * Adds each item's net quantity change in one batch. Relative, so changes written
+     * directly to the row in the meantime are kept.
+     */
+    public void batchApplyStockDeltas(List<StockDelta> deltas, LocalDateTime updatedAt) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setInt(1, delta.delta());
+            ps.setInt(2, delta.delta());
+            ps.setTimestamp(3, timestamp);
+            ps.setString(4, delta.updatedBy());
+            ps.setLong(5, delta.itemId());
+        });
+    }
+
+    public record StockDelta(long itemId, int delta, String updatedBy) {
+    }
+}
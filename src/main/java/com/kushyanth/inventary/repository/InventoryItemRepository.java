@@ -1,27 +1,83 @@
 package com.kushyanth.inventary.repository;
 
+import com.kushyanth.inventary.dto.DimensionCount;
+import com.kushyanth.inventary.dto.InventoryTotals;
+import com.kushyanth.inventary.dto.ItemFacets;
+import com.kushyanth.inventary.dto.LowStockLevel;
 import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
+
+    // Rows per round trip for export cursors (MySQL needs useCursorFetch=true to honour it)
+    String EXPORT_FETCH_SIZE = "1000";
     Optional<InventoryItem> findBySku(String sku);
     Boolean existsBySku(String sku);
     
+    List<InventoryItem> findByIdInAndIsActiveTrue(Collection<Long> ids);
+    List<InventoryItem> findBySkuInAndIsActiveTrue(Collection<String> skus);
+    
     List<InventoryItem> findByIsActiveTrue();
     Page<InventoryItem> findByIsActiveTrue(Pageable pageable);
+    Window<InventoryItem> findByIsActiveTrue(ScrollPosition position, Sort sort, Limit limit);
     
-    @Query("SELECT i FROM InventoryItem i WHERE i.quantity <= i.reorderThreshold AND i.isActive = true")
+    @Query("SELECT i FROM InventoryItem i WHERE i.isActive = true AND i.lowStock = true")
     List<InventoryItem> findLowStockItems();
     
+    @Query(value = "SELECT i FROM InventoryItem i WHERE i.isActive = true AND i.lowStock = true " +
+                   "ORDER BY (i.reorderThreshold - i.quantity) DESC, i.id ASC",
+           countQuery = "SELECT COUNT(i) FROM InventoryItem i WHERE i.isActive = true AND i.lowStock = true")
+    Page<InventoryItem> findLowStockItemsByShortfall(Pageable pageable);
+    
+    // Export cursors: read-only entities fetched EXPORT_FETCH_SIZE rows at a time. The stream must be
+    // closed and consumed inside a transaction, detaching each item once it has been written.
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT i FROM InventoryItem i WHERE i.isActive = true ORDER BY i.id")
+    Stream<InventoryItem> streamActiveItems();
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT i FROM InventoryItem i WHERE i.isActive = true AND i.lowStock = true " +
+           "ORDER BY (i.reorderThreshold - i.quantity) DESC, i.id ASC")
+    Stream<InventoryItem> streamLowStockItems();
+    
+    @Query("SELECT i.id AS id, i.quantity AS quantity, i.reorderThreshold AS reorderThreshold, i.version AS version " +
+           "FROM InventoryItem i WHERE i.isActive = true AND i.lowStock = true")
+    List<LowStockLevel> findLowStockLevels();
+    
+    @Query("SELECT i.id AS id, i.category AS category, i.supplierName AS supplierName, i.location AS location " +
+           "FROM InventoryItem i WHERE i.isActive = true")
+    List<ItemFacets> findActiveItemFacets();
+    
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.lowStock = CASE WHEN i.quantity <= i.reorderThreshold THEN true ELSE false END " +
+           "WHERE i.lowStock IS NULL")
+    int backfillLowStock();
+    
     @Query("SELECT i FROM InventoryItem i WHERE i.isActive = true AND " +
            "(:category IS NULL OR i.category = :category) AND " +
            "(:supplierName IS NULL OR i.supplierName = :supplierName) AND " +
@@ -45,4 +101,71 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
     
     @Query("SELECT DISTINCT i.location FROM InventoryItem i WHERE i.location IS NOT NULL AND i.isActive = true")
     List<String> findDistinctLocations();
-}
\ No newline at end of file
+    
+    @Query("SELECT COUNT(i) AS itemCount, " +
+           "COALESCE(SUM(i.quantity), 0) AS totalQuantity, " +
+           "COALESCE(SUM(CASE WHEN i.quantity <= i.reorderThreshold THEN 1 ELSE 0 END), 0) AS lowStockCount " +
+           "FROM InventoryItem i WHERE i.isActive = true")
+    InventoryTotals getActiveTotals();
+    
+    @Query("SELECT i.category AS name, COUNT(i) AS itemCount FROM InventoryItem i " +
+           "WHERE i.category IS NOT NULL AND i.isActive = true GROUP BY i.category")
+    List<DimensionCount> countByCategory();
+    
+    @Query("SELECT i.supplierName AS name, COUNT(i) AS itemCount FROM InventoryItem i " +
+           "WHERE i.supplierName IS NOT NULL AND i.isActive = true GROUP BY i.supplierName")
+    List<DimensionCount> countBySupplier();
+    
+    @Query("SELECT i.location AS name, COUNT(i) AS itemCount FROM InventoryItem i " +
+           "WHERE i.location IS NOT NULL AND i.isActive = true GROUP BY i.location")
+    List<DimensionCount> countByLocation();
+    
+    // Use with PageRequest.of(0, n) so the limit is applied in SQL
+    @Query("SELECT i.category AS name, COUNT(i) AS itemCount FROM InventoryItem i " +
+           "WHERE i.category IS NOT NULL AND i.isActive = true GROUP BY i.category " +
+           "ORDER BY COUNT(i) DESC, i.category ASC")
+    List<DimensionCount> findTopCategories(Pageable pageable);
+    
+    @Query("SELECT new com.kushyanth.inventary.event.ItemSnapshot(i.id, i.sku, i.name, i.description, i.quantity, " +
+           "i.reorderThreshold, i.category, i.supplierName, i.supplierEmail, i.location, i.isActive, i.version) " +
+           "FROM InventoryItem i WHERE i.id = :id")
+    Optional<ItemSnapshot> findSnapshotById(@Param("id") Long id);
+    
+    @Query("SELECT new com.kushyanth.inventary.event.ItemSnapshot(i.id, i.sku, i.name, i.description, i.quantity, " +
+           "i.reorderThreshold, i.category, i.supplierName, i.supplierEmail, i.location, i.isActive, i.version) " +
+           "FROM InventoryItem i WHERE i.id IN :ids")
+    List<ItemSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Unmanaged, so callers can write the items back with JDBC without Hibernate flushing them too.
+    // The rows stay locked until the caller's transaction ends, so the snapshots remain current.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.kushyanth.inventary.event.ItemSnapshot(i.id, i.sku, i.name, i.description, i.quantity, " +
+           "i.reorderThreshold, i.category, i.supplierName, i.supplierEmail, i.location, i.isActive, i.version) " +
+           "FROM InventoryItem i WHERE i.sku IN :skus AND i.isActive = true")
+    List<ItemSnapshot> findActiveSnapshotsBySkuInForUpdate(@Param("skus") Collection<String> skus);
+    
+    // Relative change applied by the database; matches no row when the result would be negative.
+    // low_stock is assigned first because MySQL evaluates SET left to right against the updated row.
+    @Modifying
+    @Query("UPDATE InventoryItem i SET " +
+           "i.lowStock = CASE WHEN i.quantity + :delta <= i.reorderThreshold THEN true ELSE false END, " +
+           "i.quantity = i.quantity + :delta, i.version = i.version + 1, i.updatedBy = :updatedBy, " +
+           "i.updatedAt = :updatedAt WHERE i.id = :id AND i.isActive = true AND i.quantity + :delta >= 0")
+    int applyStockDelta(@Param("id") Long id,
+                        @Param("delta") int delta,
+                        @Param("updatedBy") String updatedBy,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.quantity = :quantity, i.version = i.version + 1, " +
+           "i.lowStock = CASE WHEN :quantity <= i.reorderThreshold THEN true ELSE false END, " +
+           "i.updatedBy = :updatedBy, i.updatedAt = :updatedAt WHERE i.id = :id AND i.isActive = true")
+    int setStockQuantity(@Param("id") Long id,
+                         @Param("quantity") int quantity,
+                         @Param("updatedBy") String updatedBy,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Query(value = "SELECT quantity FROM inventory_items WHERE id = :id AND is_active = true FOR UPDATE",
+           nativeQuery = true)
+    Optional<Integer> lockStockQuantity(@Param("id") Long id);
+}
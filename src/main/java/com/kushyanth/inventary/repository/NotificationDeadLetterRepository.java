@@ -0,0 +1,13 @@
+package com.kushyanth.inventary.repository;
+
+import com.kushyanth.inventary.entity.NotificationDeadLetter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationDeadLetterRepository extends JpaRepository<NotificationDeadLetter, Long> {
+
+    Page<NotificationDeadLetter> findAllByOrderByCreatedAtDesc(Pageable pageable);
+}
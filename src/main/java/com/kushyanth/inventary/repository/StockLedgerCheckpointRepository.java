@@ -0,0 +1,26 @@
+package com.kushyanth.inventary.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The single row of stock_ledger_checkpoint: the last stock ledger journal sequence
+ * that has been written to the database. Runs in the caller's transaction.
+ */
+@Repository
+public class StockLedgerCheckpointRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public long findLastSequence() {
+        Long sequence = jdbcTemplate.queryForObject(
+                "SELECT last_sequence FROM stock_ledger_checkpoint WHERE id = 1", Long.class);
+        return sequence != null ? sequence : 0;
+    }
+
+    public void updateLastSequence(long sequence) {
+        jdbcTemplate.update("UPDATE stock_ledger_checkpoint SET last_sequence = ? WHERE id = 1", sequence);
+    }
+}
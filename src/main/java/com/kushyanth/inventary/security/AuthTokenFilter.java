@@ -1,6 +1,9 @@
 package com.kushyanth.inventary.security;
 
+import com.kushyanth.inventary.service.InventoryMetrics;
 import com.kushyanth.inventary.util.JwtUtils;
+import com.kushyanth.inventary.util.RequestTimings;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,7 +14,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,7 +25,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private JwtPrincipalResolver principalResolver;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
@@ -32,10 +37,23 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = null;
+            if (jwt != null) {
+                long started = System.nanoTime();
+                claims = jwtUtils.getClaimsFromJwtToken(jwt);
+                RequestTimings.record(RequestTimings.Phase.JWT, started);
+            }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = null;
+            if (claims != null) {
+                long started = System.nanoTime();
+                userDetails = principalResolver.resolve(claims);
+                RequestTimings.record(RequestTimings.Phase.USER, started);
+            }
+            if (jwt != null) {
+                inventoryMetrics.jwtValidated(userDetails != null);
+            }
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails,
                                 null,
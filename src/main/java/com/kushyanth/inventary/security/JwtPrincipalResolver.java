@@ -0,0 +1,81 @@
+package com.kushyanth.inventary.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kushyanth.inventary.event.UserTokensRevokedEvent;
+import com.kushyanth.inventary.util.JwtUtils;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Turns verified token claims into the request principal. Every token is checked against
+ * the user's current token version and active flag, read through a short-TTL cache, so a
+ * revoked token stops working on this instance as soon as the change commits and on the
+ * others within the TTL. The roles come from the claims unless
+ * {@code jwt.verify-user.enabled} is set, in which case the cached user's roles are used.
+ * Tokens issued without embedded roles always use the cached user.
+ */
+@Component
+public class JwtPrincipalResolver {
+    private static final Logger logger = LoggerFactory.getLogger(JwtPrincipalResolver.class);
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Value("${jwt.verify-user.enabled:false}")
+    private boolean verifyUser;
+
+    @Value("${jwt.verify-user.cache-ttl:30s}")
+    private Duration cacheTtl;
+
+    @Value("${jwt.verify-user.cache-size:10000}")
+    private long cacheSize;
+
+    private Cache<String, UserPrincipal> principals;
+
+    @PostConstruct
+    public void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    // Null when the token has been revoked or the user deactivated
+    public UserPrincipal resolve(Claims claims) {
+        UserPrincipal fromToken = jwtUtils.getPrincipalFromClaims(claims);
+        UserPrincipal current = principals.get(claims.getSubject(), this::loadUser);
+        if (!current.isEnabled()) {
+            logger.warn("Rejecting token for inactive user {}", claims.getSubject());
+            return null;
+        }
+        if (fromToken != null && fromToken.getTokenVersion() != current.getTokenVersion()) {
+            logger.warn("Rejecting revoked token for user {} (version {}, current {})",
+                    claims.getSubject(), fromToken.getTokenVersion(), current.getTokenVersion());
+            return null;
+        }
+        return fromToken == null || verifyUser ? current : fromToken;
+    }
+
+    // After commit, so the next lookup cannot load the user as it was before the change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokensRevoked(UserTokensRevokedEvent event) {
+        principals.invalidate(event.getUsername());
+    }
+
+    private UserPrincipal loadUser(String username) {
+        return (UserPrincipal) userDetailsService.loadUserByUsername(username);
+    }
+}
@@ -21,13 +21,23 @@ public class UserPrincipal implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    private int tokenVersion;
+
+    private boolean enabled = true;
+
     public UserPrincipal(Long id, String username, String email, String password,
                         Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, email, password, authorities, 0);
+    }
+
+    public UserPrincipal(Long id, String username, String email, String password,
+                        Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.tokenVersion = tokenVersion;
     }
 
     public static UserPrincipal create(User user) {
@@ -35,13 +45,26 @@ public class UserPrincipal implements UserDetails {
                 .map(role -> new SimpleGrantedAuthority(role.getName().name()))
                 .collect(Collectors.toList());
 
-        return new UserPrincipal(
+        UserPrincipal principal = new UserPrincipal(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities
+                authorities,
+                user.getTokenVersion() != null ? user.getTokenVersion() : 0
         );
+        principal.enabled = !Boolean.FALSE.equals(user.getIsActive());
+        return principal;
+    }
+
+    // Built from verified token claims, without a database lookup or password
+    public static UserPrincipal fromClaims(Long id, String username, String email, List<String> roles,
+                                           int tokenVersion) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .collect(Collectors.toList());
+
+        return new UserPrincipal(id, username, email, null, authorities, tokenVersion);
     }
 
     public Long getId() {
@@ -52,6 +75,10 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public String getUsername() {
         return username;
@@ -84,7 +111,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 
     @Override
@@ -20,15 +20,19 @@ public class AlertService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private LowStockAlertState lowStockAlertState;
+
+    // Reports only items that went low since the previous run; each already got a transition alert
     @Scheduled(cron = "${inventory.alert.cron}")
     public void checkLowStockItems() {
         logger.info("Running scheduled low stock check...");
         
         try {
-            List<InventoryItem> lowStockItems = inventoryService.getLowStockItems();
+            List<InventoryItem> lowStockItems = inventoryService.getLowStockItems(lowStockAlertState.drainNewlyLow());
             
             if (!lowStockItems.isEmpty()) {
-                logger.warn("Found {} items with low stock", lowStockItems.size());
+                logger.warn("Found {} items that went low since the last check", lowStockItems.size());
                 emailService.sendBulkLowStockAlert(lowStockItems);
                 
                 // Log each low stock item
@@ -37,7 +41,7 @@ public class AlertService {
                                item.getName(), item.getSku(), item.getQuantity(), item.getReorderThreshold());
                 }
             } else {
-                logger.info("No low stock items found");
+                logger.info("No items went low since the last check");
             }
         } catch (Exception e) {
             logger.error("Error during low stock check", e);
@@ -0,0 +1,159 @@
+package com.kushyanth.inventary.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kushyanth.inventary.dto.ChangeLogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file of change log entries that have been committed but not yet
+ * inserted. Every entry gets a sequence number; the highest sequence known to be in
+ * the database is kept in a checkpoint file next to the journal, and the journal is
+ * truncated whenever everything appended has been inserted. Replay is at-least-once:
+ * a crash between an insert and its checkpoint replays that batch again. Without
+ * forceOnAppend, appends only reach the OS and {@link #force()} syncs them in groups.
+ */
+class ChangeLogJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogJournal.class);
+
+    private final Path journalFile;
+    private final Path checkpointFile;
+    private final ObjectMapper objectMapper;
+    private final boolean forceOnAppend;
+
+    private FileChannel channel;
+    private long lastAppended;
+    private long lastCheckpoint;
+
+    ChangeLogJournal(Path journalFile, ObjectMapper objectMapper) {
+        this(journalFile, objectMapper, true);
+    }
+
+    ChangeLogJournal(Path journalFile, ObjectMapper objectMapper, boolean forceOnAppend) {
+        this.journalFile = journalFile;
+        this.checkpointFile = journalFile.resolveSibling(journalFile.getFileName() + ".checkpoint");
+        this.objectMapper = objectMapper;
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    // Opens the journal and returns the entries that were never confirmed as inserted
+    synchronized List<ChangeLogEntry> open() throws IOException {
+        Path parent = journalFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        if (Files.exists(checkpointFile)) {
+            lastCheckpoint = Long.parseLong(Files.readString(checkpointFile).trim());
+        }
+        lastAppended = lastCheckpoint;
+
+        List<ChangeLogEntry> pending = new ArrayList<>();
+        if (Files.exists(journalFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    ChangeLogEntry entry;
+                    try {
+                        entry = objectMapper.readValue(line, ChangeLogEntry.class);
+                    } catch (IOException e) {
+                        // A torn last line from a crash mid-write; everything before it is intact
+                        logger.warn("Skipping unreadable change log journal line: {}", e.getMessage());
+                        continue;
+                    }
+                    lastAppended = Math.max(lastAppended, entry.getSequence());
+                    if (entry.getSequence() > lastCheckpoint) {
+                        pending.add(entry);
+                    }
+                }
+            }
+        }
+
+        channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return pending;
+    }
+
+    // Assigns sequence numbers and writes the entries, forcing them to disk if configured
+    synchronized void append(List<ChangeLogEntry> entries) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (ChangeLogEntry entry : entries) {
+                entry.setSequence(++lastAppended);
+                lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (forceOnAppend) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to change log journal " + journalFile, e);
+        }
+    }
+
+    synchronized void force() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sync change log journal " + journalFile, e);
+        }
+    }
+
+    synchronized long getLastAppended() {
+        return lastAppended;
+    }
+
+    // Continues numbering after a sequence recorded elsewhere, e.g. in the database
+    synchronized void advanceTo(long sequence) {
+        lastAppended = Math.max(lastAppended, sequence);
+    }
+
+    synchronized void checkpoint(long sequence) {
+        if (sequence <= lastCheckpoint) {
+            return;
+        }
+        try {
+            Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.writeString(temp, Long.toString(sequence));
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastCheckpoint = sequence;
+
+            // Everything appended so far is in the database, start the journal over
+            if (lastCheckpoint == lastAppended) {
+                channel.truncate(0);
+            }
+        } catch (IOException e) {
+            logger.error("Could not write change log journal checkpoint {}", sequence, e);
+        }
+    }
+
+    synchronized void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not close change log journal", e);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.kushyanth.inventary.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kushyanth.inventary.dto.ChangeLogEntry;
+import com.kushyanth.inventary.repository.InventoryChangeLogJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes change log inserts off the request path. Entries are queued once the
+ * surrounding transaction commits and a single flusher thread inserts them in JDBC
+ * batches of up to {@code batch-size} rows, or whatever arrived within
+ * {@code flush-interval-ms}. When the bounded queue is full the committing thread
+ * inserts the entries that did not fit itself, outside the pipeline lock, which slows
+ * only that writer down instead of growing the heap. With the journal enabled, queued
+ * entries survive a crash and are replayed at startup; the checkpoint only moves past
+ * a sequence once every entry up to it has been inserted, by either path.
+ */
+@Service
+public class ChangeLogPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogPipeline.class);
+
+    private static final long MAX_RETRY_BACKOFF_MS = 30000;
+
+    @Autowired
+    private InventoryChangeLogJdbcRepository changeLogJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.changelog.async.enabled:true}")
+    private boolean asyncEnabled;
+
+    @Value("${inventory.changelog.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${inventory.changelog.async.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.changelog.async.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${inventory.changelog.journal.enabled:false}")
+    private boolean journalEnabled;
+
+    @Value("${inventory.changelog.journal.path:data/changelog.journal}")
+    private String journalPath;
+
+    private BlockingQueue<ChangeLogEntry> queue;
+    private TransactionTemplate transactionTemplate;
+    private ChangeLogJournal journal;
+    private List<ChangeLogEntry> pendingReplay = List.of();
+
+    // Journal sequences not inserted yet, and the highest one assigned
+    private final ConcurrentSkipListSet<Long> unconfirmed = new ConcurrentSkipListSet<>();
+    private volatile long lastSequence;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!asyncEnabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Flushes may be triggered from afterCommit callbacks, which must not reuse the finished transaction
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (journalEnabled) {
+            journal = new ChangeLogJournal(Path.of(journalPath), objectMapper);
+            pendingReplay = journal.open();
+            track(pendingReplay);
+            // Entries after the replayed ones may already be inserted, the checkpoint must still reach them
+            lastSequence = journal.getLastAppended();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!asyncEnabled || running) {
+            return;
+        }
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "changelog-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public void append(ChangeLogEntry entry) {
+        appendAll(List.of(entry));
+    }
+
+    public void appendAll(List<ChangeLogEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        if (!asyncEnabled) {
+            changeLogJdbcRepository.batchInsert(entries);
+            return;
+        }
+
+        // Only committed changes are logged; a rolled back write leaves no audit row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entries);
+                }
+            });
+        } else {
+            enqueue(entries);
+        }
+    }
+
+    private void enqueue(List<ChangeLogEntry> entries) {
+        List<ChangeLogEntry> overflow;
+        // Journal order and queue order must match; nothing in here waits for the queue or the database
+        synchronized (this) {
+            if (journal != null) {
+                journal.append(entries);
+                track(entries);
+            }
+
+            int queued = 0;
+            while (queued < entries.size() && queue.offer(entries.get(queued))) {
+                queued++;
+            }
+            overflow = entries.subList(queued, entries.size());
+        }
+
+        if (!overflow.isEmpty()) {
+            logger.warn("Change log queue is full, inserting {} entries on the calling thread", overflow.size());
+            transactionTemplate.executeWithoutResult(status -> changeLogJdbcRepository.batchInsert(overflow));
+            confirm(overflow);
+        }
+    }
+
+    private void runFlusher() {
+        // Replay runs on this thread before any new entry so checkpoints only ever move forward
+        if (!pendingReplay.isEmpty()) {
+            logger.info("Replaying {} change log entries from the journal", pendingReplay.size());
+            for (int from = 0; from < pendingReplay.size(); from += batchSize) {
+                flush(pendingReplay.subList(from, Math.min(from + batchSize, pendingReplay.size())));
+            }
+            pendingReplay = List.of();
+        }
+
+        List<ChangeLogEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ChangeLogEntry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    ChangeLogEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Keep draining; the loop ends once shutdown is requested and the queue is empty
+            }
+        }
+    }
+
+    private void flush(List<ChangeLogEntry> batch) {
+        long backoffMs = 100;
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> changeLogJdbcRepository.batchInsert(batch));
+                break;
+            } catch (Exception e) {
+                if (!running) {
+                    logger.error("Dropping {} change log entries during shutdown, the journal keeps them if enabled",
+                            batch.size(), e);
+                    return;
+                }
+                logger.error("Failed to insert {} change log entries, retrying in {} ms", batch.size(), backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+
+        confirm(batch);
+    }
+
+    private void track(List<ChangeLogEntry> entries) {
+        for (ChangeLogEntry entry : entries) {
+            unconfirmed.add(entry.getSequence());
+            lastSequence = Math.max(lastSequence, entry.getSequence());
+        }
+    }
+
+    // Checkpoints below the oldest entry still waiting, whichever thread is inserting it
+    private void confirm(List<ChangeLogEntry> inserted) {
+        if (journal == null) {
+            return;
+        }
+        for (ChangeLogEntry entry : inserted) {
+            unconfirmed.remove(entry.getSequence());
+        }
+        long upTo = lastSequence;
+        Long oldest = unconfirmed.ceiling(Long.MIN_VALUE);
+        if (oldest != null) {
+            upTo = Math.min(upTo, oldest - 1);
+        }
+        journal.checkpoint(upTo);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+}
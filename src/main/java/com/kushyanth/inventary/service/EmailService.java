@@ -1,6 +1,8 @@
 package com.kushyanth.inventary.service;
 
 import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.util.RequestTimings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,21 +21,49 @@ public class EmailService {
     @Autowired
     private JavaMailSender emailSender;
 
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    public void sendLowStockAlert(InventoryItem item) {
+    @Value("${inventory.alert.recipient:warehouse@company.com}")
+    private String alertRecipient;
+
+    public String getAlertRecipient() {
+        return alertRecipient;
+    }
+
+    // One alert per item, or a single digest when several items went low together
+    public SimpleMailMessage buildLowStockAlert(String recipient, List<ItemSnapshot> items) {
+        if (items.size() == 1) {
+            return createMessage(recipient, "Low Stock Alert: " + items.get(0).getName(),
+                    createLowStockMessage(items.get(0)));
+        }
+        return createMessage(recipient, "Low Stock Alert: " + items.size() + " items need attention",
+                createLowStockDigestMessage(items));
+    }
+
+    public SimpleMailMessage createMessage(String recipient, String subject, String text) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(recipient);
+        message.setSubject(subject);
+        message.setText(text);
+        return message;
+    }
+
+    // Unlike the report methods this lets failures through so the caller can retry
+    public void send(SimpleMailMessage message) {
+        long started = System.nanoTime();
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo("warehouse@company.com"); // Configure this as needed
-            message.setSubject("Low Stock Alert: " + item.getName());
-            message.setText(createLowStockMessage(item));
-            
             emailSender.send(message);
-            logger.info("Low stock alert sent for item: {}", item.getName());
-        } catch (Exception e) {
-            logger.error("Failed to send low stock alert for item: {}", item.getName(), e);
+            inventoryMetrics.emailSent();
+        } catch (RuntimeException e) {
+            inventoryMetrics.emailFailed();
+            throw e;
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.SMTP, started);
         }
     }
 
@@ -42,21 +72,26 @@ public class EmailService {
             return;
         }
 
+        long started = System.nanoTime();
         try {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom(fromEmail);
-            message.setTo("warehouse@company.com"); // Configure this as needed
+            message.setTo(alertRecipient);
             message.setSubject("Daily Low Stock Report - " + lowStockItems.size() + " items need attention");
             message.setText(createBulkLowStockMessage(lowStockItems));
             
             emailSender.send(message);
+            inventoryMetrics.emailSent();
             logger.info("Bulk low stock alert sent for {} items", lowStockItems.size());
         } catch (Exception e) {
+            inventoryMetrics.emailFailed();
             logger.error("Failed to send bulk low stock alert", e);
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.SMTP, started);
         }
     }
 
-    private String createLowStockMessage(InventoryItem item) {
+    private String createLowStockMessage(ItemSnapshot item) {
         return String.format(
             "URGENT: Low Stock Alert\n\n" +
             "Item: %s\n" +
@@ -78,6 +113,29 @@ public class EmailService {
         );
     }
 
+    private String createLowStockDigestMessage(List<ItemSnapshot> items) {
+        StringBuilder message = new StringBuilder();
+        message.append("URGENT: Low Stock Alert\n\n");
+        message.append("The following items dropped to or below their reorder thresholds:\n\n");
+
+        for (ItemSnapshot item : items) {
+            message.append(String.format(
+                "• %s (SKU: %s) - Current: %d, Threshold: %d, Supplier: %s, Location: %s\n",
+                item.getName(),
+                item.getSku(),
+                item.getQuantity(),
+                item.getReorderThreshold(),
+                item.getSupplierName() != null ? item.getSupplierName() : "N/A",
+                item.getLocation() != null ? item.getLocation() : "N/A"
+            ));
+        }
+
+        message.append("\nPlease reorder these items to avoid stockouts.\n\n");
+        message.append("Inventory Management System");
+
+        return message.toString();
+    }
+
     private String createBulkLowStockMessage(List<InventoryItem> items) {
         StringBuilder message = new StringBuilder();
         message.append("Daily Low Stock Report\n\n");
@@ -0,0 +1,157 @@
+package com.kushyanth.inventary.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kushyanth.inventary.dto.ChangeLogView;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.repository.InventoryChangeLogRepository;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes items and change logs to an output stream as CSV or NDJSON. Rows are read through
+ * forward-only repository cursors and written as they arrive, and item entities are detached
+ * once written, so memory use stays the same whatever the size of the export.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final String[] ITEM_COLUMNS = {"id", "sku", "name", "description", "category",
+            "supplier_name", "location", "quantity", "reorder_threshold", "unit_price", "low_stock", "updated_at"};
+
+    private static final String[] CHANGE_LOG_COLUMNS = {"id", "item_id", "item_sku", "item_name", "old_quantity",
+            "new_quantity", "quantity_change", "change_type", "reason", "changed_by", "change_date"};
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Active items by id; returns the number of rows written
+    public long exportItems(DataFormat format, OutputStream out) throws IOException {
+        try (Stream<InventoryItem> items = inventoryItemRepository.streamActiveItems()) {
+            return write(items, format, out, ITEM_COLUMNS, ExportService::itemRow, entityManager::detach);
+        }
+    }
+
+    // Active low stock items, largest shortfall first
+    public long exportLowStockItems(DataFormat format, OutputStream out) throws IOException {
+        try (Stream<InventoryItem> items = inventoryItemRepository.streamLowStockItems()) {
+            return write(items, format, out, ITEM_COLUMNS, ExportService::itemRow, entityManager::detach);
+        }
+    }
+
+    // Changes in the range (inclusive), oldest first
+    public long exportChangeLogs(LocalDateTime startDate, LocalDateTime endDate, DataFormat format, OutputStream out)
+            throws IOException {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        try (Stream<ChangeLogView> changeLogs = changeLogRepository.streamViewsByDateRange(startDate, endDate)) {
+            return write(changeLogs, format, out, CHANGE_LOG_COLUMNS, ExportService::changeLogRow, view -> { });
+        }
+    }
+
+    private <T> long write(Stream<T> rows, DataFormat format, OutputStream out, String[] columns,
+                           Function<T, Object[]> toCsvRow, Consumer<T> afterWrite) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        JsonGenerator json = null;
+        if (format == DataFormat.CSV) {
+            writeCsvRow(writer, columns);
+        } else {
+            // One generator for the whole export; the servlet container owns the output stream
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+        }
+
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (json != null) {
+                json.writeObject(row);
+                json.writeRaw('\n');
+            } else {
+                writeCsvRow(writer, toCsvRow.apply(row));
+            }
+            afterWrite.accept(row);
+            count++;
+        }
+
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static Object[] itemRow(InventoryItem item) {
+        return new Object[]{item.getId(), item.getSku(), item.getName(), item.getDescription(), item.getCategory(),
+                item.getSupplierName(), item.getLocation(), item.getQuantity(), item.getReorderThreshold(),
+                item.getUnitPrice(), item.isLowStock(), item.getUpdatedAt()};
+    }
+
+    private static Object[] changeLogRow(ChangeLogView view) {
+        return new Object[]{view.getId(), view.getItemId(), view.getItemSku(), view.getItemName(),
+                view.getOldQuantity(), view.getNewQuantity(), view.getQuantityChange(), view.getChangeType(),
+                view.getReason(), view.getChangedBy(), view.getChangeDate()};
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote values containing a separator, quote or line break, doubling inner quotes
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
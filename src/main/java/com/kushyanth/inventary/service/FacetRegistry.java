@@ -0,0 +1,173 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.dto.FacetValues;
+import com.kushyanth.inventary.dto.ItemFacets;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Distinct categories, suppliers and locations of active items, each value counted
+ * by the items that use it. Loaded at startup in one pass and kept current from item
+ * write events, so the metadata endpoints never query the table. The facets each item
+ * contributes are remembered, which makes applying an event idempotent: a change seen
+ * during the load is simply applied again on top of it.
+ */
+@Service
+public class FacetRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetRegistry.class);
+
+    public enum Dimension {
+        CATEGORY(Facets::category),
+        SUPPLIER(Facets::supplierName),
+        LOCATION(Facets::location);
+
+        private final Function<Facets, String> value;
+
+        Dimension(Function<Facets, String> value) {
+            this.value = value;
+        }
+    }
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    private final Map<Long, Facets> facetsByItem = new HashMap<>();
+    private final Map<Dimension, TreeMap<String, Integer>> counts = new EnumMap<>(Dimension.class);
+
+    // Response lists built from the counts, dropped when a value appears or disappears
+    private final Map<Dimension, FacetValues> views = new EnumMap<>(Dimension.class);
+    private volatile boolean ready;
+
+    // Changes seen while the startup load runs, applied on top of it
+    private List<ItemSnapshot> pendingChanges;
+
+    public FacetRegistry() {
+        for (Dimension dimension : Dimension.values()) {
+            counts.put(dimension, new TreeMap<>());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized FacetValues get(Dimension dimension) {
+        return views.computeIfAbsent(dimension, key -> toFacetValues(new ArrayList<>(counts.get(key).keySet())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        try {
+            List<ItemFacets> rows = inventoryItemRepository.findActiveItemFacets();
+            synchronized (this) {
+                for (ItemFacets row : rows) {
+                    put(row.getId(), new Facets(row.getCategory(), row.getSupplierName(), row.getLocation()));
+                }
+                pendingChanges.forEach(this::apply);
+                pendingChanges = null;
+                ready = true;
+            }
+            logger.info("Facet registry loaded with {} categories, {} suppliers and {} locations",
+                    counts.get(Dimension.CATEGORY).size(), counts.get(Dimension.SUPPLIER).size(),
+                    counts.get(Dimension.LOCATION).size());
+        } catch (Exception e) {
+            logger.error("Error while loading the facet registry, metadata reads fall back to the database", e);
+            synchronized (this) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemChanged(InventoryItemChangedEvent event) {
+        if (pendingChanges != null) {
+            pendingChanges.add(event.getAfter());
+        }
+        apply(event.getAfter());
+    }
+
+    /** Builds the response for a list read from the database, with the same ETag the registry would give it. */
+    public static FacetValues toFacetValues(List<String> values) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String value : values) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        String eTag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 8) + "\"";
+        return new FacetValues(List.copyOf(values), eTag);
+    }
+
+    private void apply(ItemSnapshot item) {
+        if (item.isActive()) {
+            put(item.getId(), new Facets(item.getCategory(), item.getSupplierName(), item.getLocation()));
+        } else {
+            remove(item.getId());
+        }
+    }
+
+    private void put(Long itemId, Facets facets) {
+        Facets previous = facetsByItem.put(itemId, facets);
+        if (facets.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            release(previous);
+        }
+        for (Dimension dimension : Dimension.values()) {
+            String value = dimension.value.apply(facets);
+            if (value != null && counts.get(dimension).merge(value, 1, Integer::sum) == 1) {
+                views.remove(dimension);
+            }
+        }
+    }
+
+    private void remove(Long itemId) {
+        Facets previous = facetsByItem.remove(itemId);
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    private void release(Facets facets) {
+        for (Dimension dimension : Dimension.values()) {
+            String value = dimension.value.apply(facets);
+            if (value != null && counts.get(dimension).merge(value, -1, Integer::sum) == 0) {
+                counts.get(dimension).remove(value);
+                views.remove(dimension);
+            }
+        }
+    }
+
+    private record Facets(String category, String supplierName, String location) {
+    }
+}
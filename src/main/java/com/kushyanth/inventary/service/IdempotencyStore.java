@@ -0,0 +1,106 @@
+package com.kushyanth.inventary.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kushyanth.inventary.dto.IdempotentResponse;
+import com.kushyanth.inventary.repository.IdempotencyKeyJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Responses remembered per Idempotency-Key. Recent ones are kept in a bounded
+ * in-memory cache in front of the {@code idempotency_keys} table, which holds them
+ * for the TTL. A key being executed is claimed with a future that duplicates wait on;
+ * the response is stored before the claim is released, so a later duplicate either
+ * waits or finds it.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    @Autowired
+    private IdempotencyKeyJdbcRepository idempotencyKeyRepository;
+
+    @Value("${inventory.idempotency.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${inventory.idempotency.cache.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    @Value("${inventory.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    private Cache<String, IdempotentResponse> recent;
+
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        recent = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public IdempotentResponse find(String keyHash) {
+        IdempotentResponse response = recent.getIfPresent(keyHash);
+        if (response == null) {
+            response = idempotencyKeyRepository.find(keyHash, LocalDateTime.now()).orElse(null);
+            if (response != null) {
+                recent.put(keyHash, response);
+            }
+        }
+        return response;
+    }
+
+    // Null when the caller now owns the key, otherwise the execution already running for it
+    public CompletableFuture<IdempotentResponse> claim(String keyHash, CompletableFuture<IdempotentResponse> execution) {
+        return inFlight.putIfAbsent(keyHash, execution);
+    }
+
+    /**
+     * Stores the response of an owned execution and wakes its duplicates. Without a
+     * response (the request failed) nothing is stored and the waiters run it themselves.
+     */
+    public void complete(String keyHash, CompletableFuture<IdempotentResponse> execution, IdempotentResponse response) {
+        try {
+            if (response != null) {
+                recent.put(keyHash, response);
+                LocalDateTime now = LocalDateTime.now();
+                if (!idempotencyKeyRepository.insert(keyHash, response, now, now.plus(ttl))) {
+                    logger.warn("Idempotency key {} was already stored", keyHash);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Still answered from memory for the cache window
+            logger.error("Failed to store idempotent response for key {}", keyHash, e);
+        } finally {
+            inFlight.remove(keyHash, execution);
+            execution.complete(response);
+        }
+    }
+
+    @Scheduled(cron = "${inventory.idempotency.purge-cron}")
+    public void purgeExpired() {
+        try {
+            int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+            if (purged > 0) {
+                logger.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            logger.error("Error while purging expired idempotency keys", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Business counters. Every counter is registered up front, so recording is a lookup
+ * and an increment with no allocation on the request path.
+ */
+@Component
+public class InventoryMetrics {
+
+    // InventoryService writes that use optimistic locking
+    private static final List<String> VERSIONED_WRITES = List.of("updateItem", "updateStock", "updateStockBatch");
+
+    private final Map<InventoryChangeLog.ChangeType, Counter> stockUpdates =
+            new EnumMap<>(InventoryChangeLog.ChangeType.class);
+    private final Counter emailsSent;
+    private final Counter emailsFailed;
+    private final Counter jwtValid;
+    private final Counter jwtInvalid;
+    private final Map<String, Counter> conflictsRetried = new HashMap<>();
+    private final Map<String, Counter> conflictsRejected = new HashMap<>();
+
+    @Autowired
+    public InventoryMetrics(MeterRegistry registry) {
+        for (InventoryChangeLog.ChangeType changeType : InventoryChangeLog.ChangeType.values()) {
+            stockUpdates.put(changeType, Counter.builder("inventory.stock.updates")
+                    .description("Stock changes applied, by change type")
+                    .tag("change_type", changeType.name())
+                    .register(registry));
+        }
+        emailsSent = emailCounter(registry, "sent");
+        emailsFailed = emailCounter(registry, "failed");
+        jwtValid = jwtCounter(registry, "valid");
+        jwtInvalid = jwtCounter(registry, "invalid");
+        for (String operation : VERSIONED_WRITES) {
+            conflictsRetried.put(operation, conflictCounter(registry, operation, "retried"));
+            conflictsRejected.put(operation, conflictCounter(registry, operation, "rejected"));
+        }
+    }
+
+    public void stockUpdated(InventoryChangeLog.ChangeType changeType) {
+        stockUpdates.get(changeType).increment();
+    }
+
+    public void emailSent() {
+        emailsSent.increment();
+    }
+
+    public void emailFailed() {
+        emailsFailed.increment();
+    }
+
+    public void jwtValidated(boolean valid) {
+        (valid ? jwtValid : jwtInvalid).increment();
+    }
+
+    // retried: the write ran again on fresh data; rejected: the caller got a conflict
+    public void writeConflict(String operation, boolean retried) {
+        (retried ? conflictsRetried : conflictsRejected).get(operation).increment();
+    }
+
+    private static Counter emailCounter(MeterRegistry registry, String result) {
+        return Counter.builder("inventory.emails")
+                .description("Email send attempts, by result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter jwtCounter(MeterRegistry registry, String result) {
+        return Counter.builder("security.jwt.validations")
+                .description("Bearer tokens checked, by result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter conflictCounter(MeterRegistry registry, String operation, String outcome) {
+        return Counter.builder("inventory.write.conflicts")
+                .description("Item writes that lost an optimistic lock race or had a stale If-Match, by operation and outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
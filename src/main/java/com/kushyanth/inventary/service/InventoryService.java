@@ -1,26 +1,78 @@
 package com.kushyanth.inventary.service;
 
+import com.kushyanth.inventary.dto.BatchStockUpdateLine;
+import com.kushyanth.inventary.dto.BatchStockUpdateResponse;
+import com.kushyanth.inventary.dto.BatchStockUpdateResponse.LineResult;
+import com.kushyanth.inventary.dto.BatchStockUpdateResponse.LineStatus;
+import com.kushyanth.inventary.dto.ChangeLogEntry;
+import com.kushyanth.inventary.dto.ChangeLogView;
+import com.kushyanth.inventary.dto.CursorPage;
+import com.kushyanth.inventary.dto.FacetValues;
 import com.kushyanth.inventary.dto.InventoryItemRequest;
+import com.kushyanth.inventary.dto.StockDeltaRequest;
+import com.kushyanth.inventary.dto.StockLevelResponse;
 import com.kushyanth.inventary.dto.StockUpdateRequest;
 import com.kushyanth.inventary.entity.InventoryChangeLog;
 import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.exception.InsufficientStockException;
+import com.kushyanth.inventary.exception.VersionConflictException;
 import com.kushyanth.inventary.repository.InventoryChangeLogRepository;
 import com.kushyanth.inventary.repository.InventoryItemRepository;
+import com.kushyanth.inventary.util.CursorCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
 public class InventoryService {
 
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    private static final int MAX_SCROLL_SIZE = 1000;
+
+    // Item properties that are never null and so can be used as a keyset sort
+    private static final Set<String> ITEM_SCROLL_SORTS =
+            Set.of("id", "name", "sku", "quantity", "reorderThreshold", "createdAt", "updatedAt");
+
+    private static final Sort CHANGE_LOG_SCROLL_SORT =
+            Sort.by(Sort.Order.desc("changeDate"), Sort.Order.desc("id"));
+
     @Autowired
     private InventoryItemRepository inventoryItemRepository;
 
@@ -28,19 +80,75 @@ public class InventoryService {
     private InventoryChangeLogRepository changeLogRepository;
 
     @Autowired
-    private EmailService emailService;
+    private ChangeLogPipeline changeLogPipeline;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private ItemCache itemCache;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private FacetRegistry facetRegistry;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.concurrency.retry.max-attempts:5}")
+    private int retryMaxAttempts;
+
+    @Value("${inventory.concurrency.retry.initial-backoff-ms:5}")
+    private long retryInitialBackoffMs;
+
+    @Value("${inventory.concurrency.retry.max-backoff-ms:100}")
+    private long retryMaxBackoffMs;
 
     public Page<InventoryItem> getAllItems(Pageable pageable) {
         return inventoryItemRepository.findByIsActiveTrue(pageable);
     }
 
+    public CursorPage<InventoryItem> scrollItems(String cursor, int size, String sortBy, String sortDir) {
+        if (!ITEM_SCROLL_SORTS.contains(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort property: " + sortBy);
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        // id breaks ties so the keyset is unique
+        Sort sort = sortBy.equals("id")
+                ? Sort.by(direction, "id")
+                : Sort.by(new Sort.Order(direction, sortBy), new Sort.Order(direction, "id"));
+        String sortSpec = sortBy + "," + direction.name().toLowerCase();
+
+        Window<InventoryItem> window = inventoryItemRepository.findByIsActiveTrue(
+                cursorCodec.decode(cursor, sortSpec), sort, scrollLimit(size));
+        return toCursorPage(window, sortSpec);
+    }
+
     public Optional<InventoryItem> getItemById(Long id) {
-        return inventoryItemRepository.findById(id)
+        return itemCache.getById(id)
                 .filter(InventoryItem::getIsActive);
     }
 
     public Optional<InventoryItem> getItemBySku(String sku) {
-        return inventoryItemRepository.findBySku(sku);
+        return itemCache.getBySku(sku);
+    }
+
+    public Map<String, Object> getItemCacheStats() {
+        return itemCache.getStats();
     }
 
     public InventoryItem createItem(InventoryItemRequest request) {
@@ -60,90 +168,393 @@ public class InventoryService {
                           InventoryChangeLog.ChangeType.INITIAL_STOCK, 
                           "Initial stock entry", getCurrentUsername());
 
+        publishItemChange(null, savedItem);
+
         return savedItem;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public InventoryItem updateItem(Long id, InventoryItemRequest request) {
-        InventoryItem item = inventoryItemRepository.findById(id)
-                .filter(InventoryItem::getIsActive)
-                .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
-
-        updateItemFromRequest(item, request);
-        item.setUpdatedBy(getCurrentUsername());
+        return updateItem(id, request, null);
+    }
 
-        return inventoryItemRepository.save(item);
+    /**
+     * Replaces the item's fields. With an expected version (from If-Match) the write is
+     * rejected if the item has changed since; without one it is retried on a concurrent
+     * write, since the request replaces the whole item either way.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventoryItem updateItem(Long id, InventoryItemRequest request, Long expectedVersion) {
+        stockLedger.release(List.of(id), List.of());
+        return retryOnConflict("updateItem", id, expectedVersion == null,
+                () -> transactionTemplate.execute(status -> {
+                    InventoryItem item = findActiveItem("updateItem", id, expectedVersion);
+
+                    ItemSnapshot before = ItemSnapshot.of(item);
+                    updateItemFromRequest(item, request);
+                    item.setUpdatedBy(getCurrentUsername());
+
+                    InventoryItem updatedItem = inventoryItemRepository.saveAndFlush(item);
+                    publishItemChange(before, updatedItem);
+
+                    return updatedItem;
+                }));
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public InventoryItem updateStock(Long id, StockUpdateRequest request) {
-        InventoryItem item = inventoryItemRepository.findById(id)
-                .filter(InventoryItem::getIsActive)
-                .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
+        return updateStock(id, request, null);
+    }
+
+    // Same conflict handling as updateItem; a stale expected version bypasses the ledger
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventoryItem updateStock(Long id, StockUpdateRequest request, Long expectedVersion) {
+        if (stockLedger.isEnabled()) {
+            if (expectedVersion == null) {
+                return updateStockInLedger(id, request);
+            }
+            stockLedger.release(List.of(id), List.of());
+        }
+
+        return retryOnConflict("updateStock", id, expectedVersion == null,
+                () -> transactionTemplate.execute(status -> {
+                    InventoryItem item = findActiveItem("updateStock", id, expectedVersion);
+
+                    ItemSnapshot before = ItemSnapshot.of(item);
+                    Integer oldQuantity = item.getQuantity();
+                    item.setQuantity(request.getNewQuantity());
+                    item.setUpdatedBy(getCurrentUsername());
+
+                    InventoryItem updatedItem = inventoryItemRepository.saveAndFlush(item);
 
-        Integer oldQuantity = item.getQuantity();
+                    // Log the change
+                    logInventoryChange(updatedItem, oldQuantity, request.getNewQuantity(),
+                                      request.getChangeType(), request.getReason(), getCurrentUsername());
+
+                    // Low stock alerts are raised from this event when the item crosses its threshold
+                    publishItemChange(before, updatedItem);
+
+                    return updatedItem;
+                }));
+    }
+
+    // The database row is written by the ledger's next flush; the returned copy already has the new quantity.
+    // Its version is left empty: the flush bumps it once per batch, so no ETag can be promised yet.
+    private InventoryItem updateStockInLedger(Long id, StockUpdateRequest request) {
+        String username = getCurrentUsername();
+        stockLedger.set(id, request.getNewQuantity(), request.getChangeType(), request.getReason(), username);
+        countStockUpdate(request.getChangeType());
+
+        InventoryItem item = itemCache.getById(id)
+                .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
         item.setQuantity(request.getNewQuantity());
-        item.setUpdatedBy(getCurrentUsername());
+        item.setUpdatedBy(username);
+        item.setVersion(null);
+        return item;
+    }
+
+    /**
+     * Applies a relative stock change without loading the item. The default path is a
+     * single conditional UPDATE, so concurrent changes to the same SKU cannot overwrite
+     * each other and the row lock is only held by the statement. With floorAtZero the
+     * row is locked first so the clamped quantity, and the logged old quantity, are exact.
+     * With the stock ledger enabled the change is applied in memory instead.
+     */
+    public StockLevelResponse adjustStock(Long id, StockDeltaRequest request) {
+        String username = getCurrentUsername();
+        if (stockLedger.isEnabled()) {
+            StockLevelResponse stockLevel = stockLedger.adjust(id, request.getDelta(), request.isFloorAtZero(),
+                    request.getChangeType(), request.getReason(), username);
+            countStockUpdate(request.getChangeType());
+            return stockLevel;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int delta = request.getDelta();
+        Integer oldQuantity = null;
+
+        if (request.isFloorAtZero()) {
+            oldQuantity = inventoryItemRepository.lockStockQuantity(id)
+                    .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
+            inventoryItemRepository.setStockQuantity(id, Math.max(oldQuantity + delta, 0), username, now);
+        } else if (inventoryItemRepository.applyStockDelta(id, delta, username, now) == 0) {
+            ItemSnapshot current = inventoryItemRepository.findSnapshotById(id)
+                    .filter(ItemSnapshot::isActive)
+                    .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
+            throw new InsufficientStockException("Cannot apply " + delta + " to item " + id
+                    + " with quantity " + current.getQuantity());
+        }
+
+        ItemSnapshot after = inventoryItemRepository.findSnapshotById(id).orElseThrow();
+        int newQuantity = after.getQuantity();
+        if (oldQuantity == null) {
+            // The UPDATE holds the row lock until commit, so the old value follows from the delta
+            oldQuantity = newQuantity - delta;
+        }
+
+        logInventoryChange(id, oldQuantity, newQuantity,
+                          request.getChangeType(), request.getReason(), username);
 
-        InventoryItem updatedItem = inventoryItemRepository.save(item);
+        eventPublisher.publishEvent(new InventoryItemChangedEvent(after.withQuantity(oldQuantity), after));
 
-        // Log the change
-        logInventoryChange(updatedItem, oldQuantity, request.getNewQuantity(),
-                          request.getChangeType(), request.getReason(), getCurrentUsername());
+        return new StockLevelResponse(id, after.getSku(), oldQuantity, newQuantity,
+                after.getReorderThreshold(), after.isLowStock());
+    }
+
+    /**
+     * Applies many stock updates in one transaction: the items are loaded with one IN
+     * query per key type, item UPDATEs are flushed as one Hibernate JDBC batch
+     * and the change logs are written as JDBC batches. Lines that address the
+     * same item are applied in request order. A batch that loses an optimistic lock
+     * race is retried as a whole.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchStockUpdateResponse updateStockBatch(List<BatchStockUpdateLine> lines) {
+        return retryOnConflict("updateStockBatch", null, true,
+                () -> transactionTemplate.execute(status -> applyStockBatch(lines)));
+    }
+
+    private BatchStockUpdateResponse applyStockBatch(List<BatchStockUpdateLine> lines) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        for (BatchStockUpdateLine line : lines) {
+            if (line.getItemId() != null) {
+                ids.add(line.getItemId());
+            } else if (line.getSku() != null) {
+                skus.add(line.getSku());
+            }
+        }
+        stockLedger.release(ids, skus);
+
+        Map<Long, InventoryItem> itemsById = new HashMap<>();
+        Map<String, InventoryItem> itemsBySku = new HashMap<>();
+        if (!ids.isEmpty()) {
+            inventoryItemRepository.findByIdInAndIsActiveTrue(ids)
+                    .forEach(item -> itemsById.put(item.getId(), item));
+        }
+        if (!skus.isEmpty()) {
+            inventoryItemRepository.findBySkuInAndIsActiveTrue(skus)
+                    .forEach(item -> itemsBySku.put(item.getSku(), item));
+        }
 
-        // Check if item is now low stock
-        if (updatedItem.isLowStock()) {
-            emailService.sendLowStockAlert(updatedItem);
+        String username = getCurrentUsername();
+        BatchStockUpdateResponse response = new BatchStockUpdateResponse();
+        Map<Long, ItemSnapshot> beforeById = new LinkedHashMap<>();
+        Map<Long, InventoryItem> touchedItems = new LinkedHashMap<>();
+        List<ChangeLogEntry> changeLogs = new ArrayList<>();
+
+        for (int index = 0; index < lines.size(); index++) {
+            BatchStockUpdateLine line = lines.get(index);
+            if (line.getItemId() == null && line.getSku() == null) {
+                response.addResult(LineResult.failed(index, null, null, LineStatus.INVALID,
+                        "Either itemId or sku is required"));
+                continue;
+            }
+
+            InventoryItem item = line.getItemId() != null
+                    ? itemsById.get(line.getItemId())
+                    : itemsBySku.get(line.getSku());
+            if (item == null) {
+                response.addResult(LineResult.failed(index, line.getItemId(), line.getSku(), LineStatus.NOT_FOUND,
+                        "Item not found"));
+                continue;
+            }
+            if (line.getNewQuantity() < 0) {
+                response.addResult(LineResult.failed(index, item.getId(), item.getSku(), LineStatus.INVALID,
+                        "Quantity cannot be negative"));
+                continue;
+            }
+
+            beforeById.putIfAbsent(item.getId(), ItemSnapshot.of(item));
+            touchedItems.put(item.getId(), item);
+
+            Integer oldQuantity = item.getQuantity();
+            item.setQuantity(line.getNewQuantity());
+            item.setUpdatedBy(username);
+
+            changeLogs.add(new ChangeLogEntry(item.getId(), oldQuantity, line.getNewQuantity(),
+                    line.getChangeType(), line.getReason(), username));
+            countStockUpdate(line.getChangeType());
+            response.addResult(LineResult.updated(index, item.getId(), item.getSku(),
+                    oldQuantity, line.getNewQuantity()));
         }
 
-        return updatedItem;
+        // The logs are batched by the pipeline; the managed items are flushed as one JDBC batch
+        // before their events, so the snapshots carry the new versions
+        changeLogPipeline.appendAll(changeLogs);
+        inventoryItemRepository.flush();
+
+        // Alerts for items that went low are coalesced by the dispatcher into one message
+        for (InventoryItem item : touchedItems.values()) {
+            publishItemChange(beforeById.get(item.getId()), item);
+        }
+
+        return response;
     }
 
     public void deleteItem(Long id) {
+        stockLedger.release(List.of(id), List.of());
         InventoryItem item = inventoryItemRepository.findById(id)
                 .filter(InventoryItem::getIsActive)
                 .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
 
+        ItemSnapshot before = ItemSnapshot.of(item);
         item.setIsActive(false);
         item.setUpdatedBy(getCurrentUsername());
-        inventoryItemRepository.save(item);
+        inventoryItemRepository.saveAndFlush(item);
+
+        publishItemChange(before, item);
     }
 
+    // Largest shortfall first
     public List<InventoryItem> getLowStockItems() {
-        return inventoryItemRepository.findLowStockItems();
+        if (!lowStockIndex.isReady()) {
+            return inventoryItemRepository.findLowStockItems();
+        }
+        return findAllInOrder(lowStockIndex.getItemIds(0, Integer.MAX_VALUE));
+    }
+
+    public Page<InventoryItem> getLowStockItems(Pageable pageable) {
+        if (!lowStockIndex.isReady()) {
+            return inventoryItemRepository.findLowStockItemsByShortfall(pageable);
+        }
+        List<Long> itemIds = lowStockIndex.getItemIds(pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findAllInOrder(itemIds), pageable, lowStockIndex.size());
+    }
+
+    // The given items that are still active and low, largest shortfall first
+    public List<InventoryItem> getLowStockItems(Collection<Long> itemIds) {
+        List<InventoryItem> items = new ArrayList<>();
+        for (InventoryItem item : inventoryItemRepository.findByIdInAndIsActiveTrue(itemIds)) {
+            if (item.isLowStock()) {
+                items.add(item);
+            }
+        }
+        items.sort(Comparator.comparingInt((InventoryItem item) -> item.getReorderThreshold() - item.getQuantity())
+                .reversed()
+                .thenComparing(InventoryItem::getId));
+        return items;
     }
 
     public Page<InventoryItem> searchItems(String searchTerm, Pageable pageable) {
-        return inventoryItemRepository.findBySearchTerm(searchTerm, pageable);
+        // The LIKE query stays as the fallback while the index is still being built
+        if (!itemSearchIndex.isReady()) {
+            return inventoryItemRepository.findBySearchTerm(searchTerm, pageable);
+        }
+
+        ItemSearchIndex.SearchResult result =
+                itemSearchIndex.search(searchTerm, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findAllInOrder(result.getItemIds()), pageable, result.getTotal());
     }
 
     public Page<InventoryItem> filterItems(String category, String supplierName, String location, Pageable pageable) {
         return inventoryItemRepository.findByFilters(category, supplierName, location, pageable);
     }
 
-    public List<String> getDistinctCategories() {
-        return inventoryItemRepository.findDistinctCategories();
+    public Map<String, Long> getTopCategories(int limit) {
+        Map<String, Long> topCategories = new LinkedHashMap<>();
+        if (limit <= 0) {
+            return topCategories;
+        }
+
+        inventoryItemRepository.findTopCategories(PageRequest.of(0, limit))
+                .forEach(row -> topCategories.put(row.getName(), row.getItemCount()));
+        return topCategories;
     }
 
-    public List<String> getDistinctSuppliers() {
-        return inventoryItemRepository.findDistinctSuppliers();
+    public FacetValues getDistinctCategories() {
+        return getFacetValues(FacetRegistry.Dimension.CATEGORY, inventoryItemRepository::findDistinctCategories);
     }
 
-    public List<String> getDistinctLocations() {
-        return inventoryItemRepository.findDistinctLocations();
+    public FacetValues getDistinctSuppliers() {
+        return getFacetValues(FacetRegistry.Dimension.SUPPLIER, inventoryItemRepository::findDistinctSuppliers);
     }
 
-    public Page<InventoryChangeLog> getItemHistory(Long itemId, Pageable pageable) {
-        InventoryItem item = inventoryItemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("Item not found with id: " + itemId));
+    public FacetValues getDistinctLocations() {
+        return getFacetValues(FacetRegistry.Dimension.LOCATION, inventoryItemRepository::findDistinctLocations);
+    }
+
+    // The DISTINCT query stays as the fallback while the registry is still being built
+    private FacetValues getFacetValues(FacetRegistry.Dimension dimension, Supplier<List<String>> query) {
+        if (facetRegistry.isReady()) {
+            return facetRegistry.get(dimension);
+        }
+        List<String> values = new ArrayList<>(query.get());
+        values.sort(Comparator.naturalOrder());
+        return FacetRegistry.toFacetValues(values);
+    }
+
+    // History listings are views (one joined SELECT plus a COUNT per page), never lazily loaded entities
+    public Page<ChangeLogView> getItemHistory(Long itemId, Pageable pageable) {
+        if (!inventoryItemRepository.existsById(itemId)) {
+            throw new RuntimeException("Item not found with id: " + itemId);
+        }
         
-        return changeLogRepository.findByInventoryItemOrderByChangeDateDesc(item, pageable);
+        return changeLogRepository.findViewsByItemId(itemId, pageable);
+    }
+
+    public Page<ChangeLogView> getAllChangeLogs(Pageable pageable) {
+        return changeLogRepository.findViews(pageable);
     }
 
-    public Page<InventoryChangeLog> getAllChangeLogs(Pageable pageable) {
-        return changeLogRepository.findAllByOrderByChangeDateDesc(pageable);
+    public CursorPage<ChangeLogView> scrollItemHistory(Long itemId, String cursor, int size) {
+        if (!inventoryItemRepository.existsById(itemId)) {
+            throw new RuntimeException("Item not found with id: " + itemId);
+        }
+
+        Window<InventoryChangeLog> window = changeLogRepository.findByInventoryItem(
+                inventoryItemRepository.getReferenceById(itemId),
+                cursorCodec.decode(cursor, "changeDate,desc"), CHANGE_LOG_SCROLL_SORT, scrollLimit(size));
+        return toCursorPage(window.map(ChangeLogView::of), "changeDate,desc");
+    }
+
+    public CursorPage<ChangeLogView> scrollChangeLogs(String cursor, int size) {
+        Window<InventoryChangeLog> window = changeLogRepository.findAllBy(
+                cursorCodec.decode(cursor, "changeDate,desc"), CHANGE_LOG_SCROLL_SORT, scrollLimit(size));
+        Map<Long, InventoryItem> itemsById = findAllById(window.stream()
+                .map(changeLog -> changeLog.getInventoryItem().getId())
+                .distinct()
+                .toList());
+        return toCursorPage(window.map(changeLog ->
+                ChangeLogView.of(changeLog, itemsById.get(changeLog.getInventoryItem().getId()))), "changeDate,desc");
+    }
+
+    // Loads items in the order of the given ids, findAllById returns rows in no particular order
+    private List<InventoryItem> findAllInOrder(List<Long> itemIds) {
+        Map<Long, InventoryItem> itemsById = findAllById(itemIds);
+
+        List<InventoryItem> items = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            InventoryItem item = itemsById.get(itemId);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
     }
 
-    public List<InventoryChangeLog> getChangeLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return changeLogRepository.findByDateRange(startDate, endDate);
+    private Map<Long, InventoryItem> findAllById(List<Long> itemIds) {
+        Map<Long, InventoryItem> itemsById = new HashMap<>();
+        for (int from = 0; from < itemIds.size(); from += MAX_SCROLL_SIZE) {
+            List<Long> chunk = itemIds.subList(from, Math.min(from + MAX_SCROLL_SIZE, itemIds.size()));
+            for (InventoryItem item : inventoryItemRepository.findAllById(chunk)) {
+                itemsById.put(item.getId(), item);
+            }
+        }
+        return itemsById;
+    }
+
+    private static Limit scrollLimit(int size) {
+        return Limit.of(Math.max(1, Math.min(size, MAX_SCROLL_SIZE)));
+    }
+
+    private <T> CursorPage<T> toCursorPage(Window<T> window, String sortSpec) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            ScrollPosition last = window.positionAt(window.size() - 1);
+            nextCursor = cursorCodec.encode((KeysetScrollPosition) last, sortSpec);
+        }
+        return new CursorPage<>(window.getContent(), window.hasNext(), nextCursor);
     }
 
     private void updateItemFromRequest(InventoryItem item, InventoryItemRequest request) {
@@ -162,9 +573,77 @@ public class InventoryService {
 
     private void logInventoryChange(InventoryItem item, Integer oldQuantity, Integer newQuantity,
                                    InventoryChangeLog.ChangeType changeType, String reason, String changedBy) {
-        InventoryChangeLog changeLog = new InventoryChangeLog(item, oldQuantity, newQuantity, 
-                                                              changeType, reason, changedBy);
-        changeLogRepository.save(changeLog);
+        logInventoryChange(item.getId(), oldQuantity, newQuantity, changeType, reason, changedBy);
+    }
+
+    private void logInventoryChange(Long itemId, Integer oldQuantity, Integer newQuantity,
+                                   InventoryChangeLog.ChangeType changeType, String reason, String changedBy) {
+        changeLogPipeline.append(new ChangeLogEntry(itemId, oldQuantity, newQuantity,
+                                                    changeType, reason, changedBy));
+        countStockUpdate(changeType);
+    }
+
+    // Counted once the change commits, so an attempt that is rolled back and retried is counted once
+    private void countStockUpdate(InventoryChangeLog.ChangeType changeType) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    inventoryMetrics.stockUpdated(changeType);
+                }
+            });
+        } else {
+            inventoryMetrics.stockUpdated(changeType);
+        }
+    }
+
+    // A stale expected version is never retried, so it is counted as a rejected conflict here
+    private InventoryItem findActiveItem(String operation, Long id, Long expectedVersion) {
+        InventoryItem item = inventoryItemRepository.findById(id)
+                .filter(InventoryItem::getIsActive)
+                .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(item.getVersion())) {
+            inventoryMetrics.writeConflict(operation, false);
+            throw new VersionConflictException("Item " + id + " is at version " + item.getVersion()
+                    + ", not " + expectedVersion);
+        }
+        return item;
+    }
+
+    /**
+     * Runs a versioned write in its own transaction. When it loses an optimistic lock race
+     * it is run again on fresh data, up to max-attempts times, after a random pause below an
+     * exponentially growing cap (full jitter) so the competing writers do not collide again.
+     */
+    private <T> T retryOnConflict(String operation, Long itemId, boolean retry, Supplier<T> write) {
+        long backoffCapMs = retryInitialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                String target = itemId != null ? "item " + itemId : "its items";
+                if (!retry || attempt >= retryMaxAttempts) {
+                    inventoryMetrics.writeConflict(operation, false);
+                    logger.warn("{} on {} conflicted with a concurrent write after {} attempts", operation, target, attempt);
+                    throw new VersionConflictException(operation + " on " + target + " conflicted with a concurrent write");
+                }
+                inventoryMetrics.writeConflict(operation, true);
+                logger.debug("{} on {} conflicted with a concurrent write, retrying", operation, target);
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(backoffCapMs + 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new VersionConflictException("Interrupted while retrying " + operation);
+                }
+                backoffCapMs = Math.min(backoffCapMs * 2, retryMaxBackoffMs);
+            }
+        }
+    }
+
+    // Listeners run after commit, so rolled back writes never reach the in-memory views
+    // The item must have been flushed, so its version is the one this write gave the row
+    private void publishItemChange(ItemSnapshot before, InventoryItem after) {
+        eventPublisher.publishEvent(new InventoryItemChangedEvent(before, ItemSnapshot.of(after)));
     }
 
     private String getCurrentUsername() {
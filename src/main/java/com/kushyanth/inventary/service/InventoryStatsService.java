@@ -0,0 +1,219 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.dto.DimensionCount;
+import com.kushyanth.inventary.dto.InventoryTotals;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard aggregates kept up to date from item write events, so the stats
+ * endpoint never has to load the catalog. A scheduled reconciliation rebuilds the
+ * counters from GROUP BY queries to correct any drift (e.g. writes made outside
+ * InventoryService).
+ */
+@Service
+public class InventoryStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryStatsService.class);
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Counters counters = new Counters();
+
+    // Until the first load the counters are empty, so there is nothing to compare against
+    private boolean loaded;
+
+    // Response map built from the counters, dropped on every change
+    private volatile Map<String, Object> statsView;
+
+    // Changes seen while a reconciliation loads new counters, applied on top of them
+    private List<InventoryItemChangedEvent> pendingChanges;
+
+    private final Object reconcileLock = new Object();
+
+    public Map<String, Object> getDashboardStats() {
+        Map<String, Object> view = statsView;
+        if (view == null) {
+            synchronized (this) {
+                view = statsView;
+                if (view == null) {
+                    view = counters.toStats();
+                    statsView = view;
+                }
+            }
+        }
+        return view;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemChangedEvent event) {
+        synchronized (this) {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            counters.apply(event);
+            statsView = null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Rebuilds the counters from the database. The queries share one snapshot, and writes
+     * committed while they run are replayed onto the result, so they are neither lost nor
+     * reported as drift. A write whose commit lands just before the snapshot but whose
+     * event arrives after may be counted twice until the next run.
+     */
+    @Scheduled(cron = "${inventory.stats.reconcile-cron}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            doReconcile();
+        }
+    }
+
+    private void doReconcile() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+            snapshot.setReadOnly(true);
+            snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            Counters rebuilt = snapshot.execute(status -> Counters.load(inventoryItemRepository));
+
+            synchronized (this) {
+                pendingChanges.forEach(rebuilt::apply);
+                pendingChanges = null;
+                if (loaded && (rebuilt.totalItems != counters.totalItems
+                        || rebuilt.totalQuantity != counters.totalQuantity
+                        || rebuilt.lowStockCount != counters.lowStockCount)) {
+                    logger.warn("Dashboard aggregates drifted (items {} -> {}, quantity {} -> {}, low stock {} -> {}), corrected",
+                            counters.totalItems, rebuilt.totalItems,
+                            counters.totalQuantity, rebuilt.totalQuantity,
+                            counters.lowStockCount, rebuilt.lowStockCount);
+                }
+                counters = rebuilt;
+                loaded = true;
+                statsView = null;
+            }
+        } catch (Exception e) {
+            logger.error("Error while reconciling dashboard aggregates", e);
+            synchronized (this) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    private static class Counters {
+        private long totalItems;
+        private long totalQuantity;
+        private long lowStockCount;
+        private final Map<String, Long> categoryDistribution = new HashMap<>();
+        private final Map<String, Long> supplierDistribution = new HashMap<>();
+        private final Map<String, Long> locationDistribution = new HashMap<>();
+
+        // Rebuilds the counters from aggregate queries, a handful of rows per dimension
+        static Counters load(InventoryItemRepository repository) {
+            Counters counters = new Counters();
+            InventoryTotals totals = repository.getActiveTotals();
+            counters.totalItems = totals.getItemCount();
+            counters.totalQuantity = totals.getTotalQuantity();
+            counters.lowStockCount = totals.getLowStockCount();
+            fill(counters.categoryDistribution, repository.countByCategory());
+            fill(counters.supplierDistribution, repository.countBySupplier());
+            fill(counters.locationDistribution, repository.countByLocation());
+            return counters;
+        }
+
+        private static void fill(Map<String, Long> distribution, List<DimensionCount> rows) {
+            for (DimensionCount row : rows) {
+                distribution.put(row.getName(), row.getItemCount());
+            }
+        }
+
+        void apply(InventoryItemChangedEvent event) {
+            if (event.wasActive()) {
+                remove(event.getBefore());
+            }
+            if (event.isActive()) {
+                add(event.getAfter());
+            }
+        }
+
+        void add(ItemSnapshot item) {
+            apply(item, 1);
+        }
+
+        void remove(ItemSnapshot item) {
+            apply(item, -1);
+        }
+
+        private void apply(ItemSnapshot item, int sign) {
+            totalItems += sign;
+            totalQuantity += (long) sign * item.getQuantity();
+            if (item.isLowStock()) {
+                lowStockCount += sign;
+            }
+            adjust(categoryDistribution, item.getCategory(), sign);
+            adjust(supplierDistribution, item.getSupplierName(), sign);
+            adjust(locationDistribution, item.getLocation(), sign);
+        }
+
+        private static void adjust(Map<String, Long> distribution, String key, int sign) {
+            if (key == null) {
+                return;
+            }
+            // Drop keys that fall to zero so the charts only show values still in use
+            distribution.compute(key, (k, count) -> {
+                long updated = (count != null ? count : 0L) + sign;
+                return updated > 0 ? updated : null;
+            });
+        }
+
+        Map<String, Object> toStats() {
+            long healthyStockCount = totalItems - lowStockCount;
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalItems", totalItems);
+            stats.put("totalQuantity", totalQuantity);
+            stats.put("lowStockCount", lowStockCount);
+            stats.put("healthyStockCount", healthyStockCount);
+            stats.put("categoryDistribution", new HashMap<>(categoryDistribution));
+            stats.put("supplierDistribution", new HashMap<>(supplierDistribution));
+            stats.put("locationDistribution", new HashMap<>(locationDistribution));
+
+            // Stock status for charts
+            Map<String, Long> stockStatus = new HashMap<>();
+            stockStatus.put("healthy", healthyStockCount);
+            stockStatus.put("lowStock", lowStockCount);
+            stats.put("stockStatus", stockStatus);
+
+            return Collections.unmodifiableMap(stats);
+        }
+    }
+}
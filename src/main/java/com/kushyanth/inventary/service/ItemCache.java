@@ -0,0 +1,142 @@
+package com.kushyanth.inventary.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache for single item lookups. Items are cached by id and SKUs map
+ * to ids, both bounded by size (W-TinyLFU eviction) and by a TTL. Entries are
+ * invalidated once a write commits; since loads go through the cache's own compute,
+ * a load that read the old row finishes before the invalidation removes it.
+ * Callers always get their own copy, so nothing they change leaks into the cache.
+ */
+@Component
+public class ItemCache {
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Value("${inventory.cache.items.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${inventory.cache.items.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    private Cache<Long, InventoryItem> itemsById;
+    private Cache<String, Long> idsBySku;
+
+    @PostConstruct
+    public void init() {
+        itemsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        idsBySku = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<InventoryItem> getById(Long id) {
+        InventoryItem cached = itemsById.get(id, key -> inventoryItemRepository.findById(key)
+                .map(ItemCache::copyOf)
+                .orElse(null));
+        return Optional.ofNullable(cached).map(ItemCache::copyOf);
+    }
+
+    public Optional<InventoryItem> getBySku(String sku) {
+        Long id = idsBySku.get(sku, key -> inventoryItemRepository.findBySku(key)
+                .map(InventoryItem::getId)
+                .orElse(null));
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        // The item is loaded through the id cache's own compute, never put from the row read
+        // above: a write committed in between would have invalidated it already, and a put
+        // would bring the old row back. The SKU may also have changed since it was resolved.
+        Optional<InventoryItem> item = getById(id);
+        if (item.isEmpty() || !sku.equals(item.get().getSku())) {
+            idsBySku.invalidate(sku);
+            return inventoryItemRepository.findBySku(sku);
+        }
+        return item;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemChangedEvent event) {
+        itemsById.invalidate(event.getItemId());
+        invalidateSku(event.getBefore());
+        invalidateSku(event.getAfter());
+    }
+
+    public void invalidateAll() {
+        itemsById.invalidateAll();
+        idsBySku.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("itemsById", toMap(itemsById));
+        stats.put("idsBySku", toMap(idsBySku));
+        return stats;
+    }
+
+    private void invalidateSku(ItemSnapshot snapshot) {
+        if (snapshot != null && snapshot.getSku() != null) {
+            idsBySku.invalidate(snapshot.getSku());
+        }
+    }
+
+    private static Map<String, Object> toMap(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> map = new HashMap<>();
+        map.put("size", cache.estimatedSize());
+        map.put("hitCount", stats.hitCount());
+        map.put("missCount", stats.missCount());
+        map.put("hitRate", stats.hitRate());
+        map.put("evictionCount", stats.evictionCount());
+        map.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return map;
+    }
+
+    private static InventoryItem copyOf(InventoryItem item) {
+        InventoryItem copy = new InventoryItem();
+        copy.setId(item.getId());
+        copy.setName(item.getName());
+        copy.setSku(item.getSku());
+        copy.setDescription(item.getDescription());
+        copy.setQuantity(item.getQuantity());
+        copy.setReorderThreshold(item.getReorderThreshold());
+        copy.setUnitPrice(item.getUnitPrice());
+        copy.setCategory(item.getCategory());
+        copy.setSupplierName(item.getSupplierName());
+        copy.setSupplierEmail(item.getSupplierEmail());
+        copy.setSupplierPhone(item.getSupplierPhone());
+        copy.setLocation(item.getLocation());
+        copy.setCreatedAt(item.getCreatedAt());
+        copy.setUpdatedAt(item.getUpdatedAt());
+        copy.setCreatedBy(item.getCreatedBy());
+        copy.setUpdatedBy(item.getUpdatedBy());
+        copy.setIsActive(item.getIsActive());
+        copy.setVersion(item.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,372 @@
+package com.kushyanth.inventary.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kushyanth.inventary.dto.ChangeLogEntry;
+import com.kushyanth.inventary.dto.InventoryItemRequest;
+import com.kushyanth.inventary.dto.ItemImportResponse;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryChangeLogJdbcRepository;
+import com.kushyanth.inventary.repository.InventoryItemJdbcRepository;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import com.kushyanth.inventary.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Imports items from a CSV or NDJSON stream, one row at a time. Rows are validated like
+ * {@code POST /items}, checked against the SKUs already in the table, and written in chunks
+ * that each commit on their own: items and their change logs as JDBC batches, then one
+ * change event per item after the commit so caches, indexes and alerts follow. Only the
+ * current chunk and the SKU set are held in memory. A chunk that fails to write is rolled
+ * back and its rows reported; earlier chunks stay committed.
+ */
+@Service
+public class ItemImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemImportService.class);
+
+    // CSV header names, compared lower case without underscores so both sku,reorder_threshold (as exported)
+    // and sku,reorderThreshold work. Other columns are ignored.
+    private static final Map<String, BiConsumer<InventoryItemRequest, String>> CSV_COLUMNS = new HashMap<>();
+
+    static {
+        CSV_COLUMNS.put("name", InventoryItemRequest::setName);
+        CSV_COLUMNS.put("sku", InventoryItemRequest::setSku);
+        CSV_COLUMNS.put("description", InventoryItemRequest::setDescription);
+        CSV_COLUMNS.put("quantity", (request, value) -> request.setQuantity(parseInteger("quantity", value)));
+        CSV_COLUMNS.put("reorderthreshold",
+                (request, value) -> request.setReorderThreshold(parseInteger("reorder_threshold", value)));
+        CSV_COLUMNS.put("unitprice", (request, value) -> request.setUnitPrice(parseDecimal("unit_price", value)));
+        CSV_COLUMNS.put("category", InventoryItemRequest::setCategory);
+        CSV_COLUMNS.put("suppliername", InventoryItemRequest::setSupplierName);
+        CSV_COLUMNS.put("supplieremail", InventoryItemRequest::setSupplierEmail);
+        CSV_COLUMNS.put("supplierphone", InventoryItemRequest::setSupplierPhone);
+        CSV_COLUMNS.put("location", InventoryItemRequest::setLocation);
+    }
+
+    @Value("${inventory.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryItemJdbcRepository itemJdbcRepository;
+
+    @Autowired
+    private InventoryChangeLogJdbcRepository changeLogJdbcRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    /**
+     * Imports every row of the input. Without upsert, rows whose SKU already exists are
+     * rejected; with it they update the active item with that SKU.
+     *
+     * @throws IllegalArgumentException if the input cannot be read as the given format at all
+     */
+    public ItemImportResponse importItems(InputStream input, DataFormat format, boolean upsert) throws IOException {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        ItemImportResponse response = new ItemImportResponse();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowSource rows = format == DataFormat.CSV ? csvRows(reader) : ndjsonRows(reader);
+
+        Set<String> knownSkus = itemJdbcRepository.findAllSkus();
+        Map<String, PendingRow> chunk = new HashMap<>();
+        ImportRow row;
+        while ((row = rows.next()) != null) {
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) {
+                response.addError(row.line(), row.sku(), error);
+                continue;
+            }
+
+            String sku = row.sku();
+            if (chunk.containsKey(sku)) {
+                // A later row for a SKU in this chunk updates what the earlier one wrote
+                writeChunk(chunk, username, response, knownSkus);
+            }
+            boolean exists = knownSkus.contains(sku);
+            if (exists && !upsert) {
+                response.addError(row.line(), sku, "Item with SKU " + sku + " already exists");
+                continue;
+            }
+
+            chunk.put(sku, new PendingRow(row.line(), row.request(), exists));
+            knownSkus.add(sku);
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, username, response, knownSkus);
+            }
+        }
+        writeChunk(chunk, username, response, knownSkus);
+        return response;
+    }
+
+    private void writeChunk(Map<String, PendingRow> chunk, String username, ItemImportResponse response,
+                            Set<String> knownSkus) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<PendingRow> rows = new ArrayList<>(chunk.values());
+        chunk.clear();
+
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> writeRows(rows, username));
+            response.addInserted(result.inserted);
+            response.addUpdated(result.updated);
+            result.errors.forEach(error -> response.addError(error.line(), error.sku(), error.message()));
+        } catch (RuntimeException e) {
+            logger.warn("Import chunk of {} rows failed: {}", rows.size(), e.getMessage());
+            for (PendingRow row : rows) {
+                if (!row.exists()) {
+                    knownSkus.remove(row.request().getSku());
+                }
+                response.addError(row.line(), row.request().getSku(), "Not imported: " + e.getMessage());
+            }
+        }
+    }
+
+    // Runs in the chunk's transaction; the events are delivered after it commits
+    private ChunkResult writeRows(List<PendingRow> rows, String username) {
+        ChunkResult result = new ChunkResult();
+        LocalDateTime now = LocalDateTime.now();
+
+        Set<String> updateSkus = new TreeSet<>();
+        rows.stream().filter(PendingRow::exists).forEach(row -> updateSkus.add(row.request().getSku()));
+        Map<String, ItemSnapshot> existing = new HashMap<>();
+        if (!updateSkus.isEmpty()) {
+            stockLedger.release(List.of(), updateSkus);
+            // Locked, so no concurrent stock write can land between this read and the update
+            inventoryItemRepository.findActiveSnapshotsBySkuInForUpdate(updateSkus)
+                    .forEach(snapshot -> existing.put(snapshot.getSku(), snapshot));
+        }
+
+        List<InventoryItem> inserts = new ArrayList<>();
+        List<InventoryItem> updates = new ArrayList<>();
+        List<ItemSnapshot> befores = new ArrayList<>();
+        for (PendingRow row : rows) {
+            InventoryItem item = new InventoryItem();
+            applyRequest(item, row.request());
+            item.setUpdatedBy(username);
+            if (!row.exists()) {
+                item.setCreatedBy(username);
+                inserts.add(item);
+                continue;
+            }
+
+            ItemSnapshot before = existing.get(row.request().getSku());
+            if (before == null) {
+                result.errors.add(new RowError(row.line(), row.request().getSku(),
+                        "Item with SKU " + row.request().getSku() + " has been deleted"));
+                continue;
+            }
+            item.setId(before.getId());
+            item.setVersion(before.getVersion());
+            item.setUpdatedAt(now);
+            updates.add(item);
+            befores.add(before);
+        }
+
+        itemJdbcRepository.batchInsert(inserts);
+        itemJdbcRepository.batchUpdate(updates);
+
+        List<ChangeLogEntry> changeLogs = new ArrayList<>();
+        for (InventoryItem item : inserts) {
+            changeLogs.add(new ChangeLogEntry(item.getId(), 0, item.getQuantity(),
+                    InventoryChangeLog.ChangeType.INITIAL_STOCK, "Initial stock entry", username));
+            eventPublisher.publishEvent(new InventoryItemChangedEvent(null, ItemSnapshot.of(item)));
+        }
+        for (int i = 0; i < updates.size(); i++) {
+            InventoryItem item = updates.get(i);
+            ItemSnapshot before = befores.get(i);
+            if (before.getQuantity() != item.getQuantity()) {
+                changeLogs.add(new ChangeLogEntry(item.getId(), before.getQuantity(), item.getQuantity(),
+                        InventoryChangeLog.ChangeType.ADJUSTMENT, "Catalog import", username));
+            }
+            eventPublisher.publishEvent(new InventoryItemChangedEvent(before, ItemSnapshot.of(item)));
+        }
+        changeLogJdbcRepository.batchInsert(changeLogs);
+
+        // Counted once the chunk commits, so a chunk that is rolled back is not counted
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changeLogs.forEach(changeLog -> inventoryMetrics.stockUpdated(changeLog.getChangeType()));
+            }
+        });
+
+        result.inserted = inserts.size();
+        result.updated = updates.size();
+        return result;
+    }
+
+    private String validate(InventoryItemRequest request) {
+        Set<ConstraintViolation<InventoryItemRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        // Sorted so the message is the same on every run
+        Set<String> messages = new TreeSet<>();
+        for (ConstraintViolation<InventoryItemRequest> violation : violations) {
+            messages.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        return String.join("; ", messages);
+    }
+
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return () -> null;
+        }
+
+        List<BiConsumer<InventoryItemRequest, String>> setters = new ArrayList<>();
+        boolean hasSku = false;
+        for (String column : header) {
+            String key = column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+            setters.add(CSV_COLUMNS.get(key));
+            hasSku |= key.equals("sku");
+        }
+        if (!hasSku) {
+            throw new IllegalArgumentException("CSV header must include a sku column");
+        }
+
+        return () -> {
+            List<String> fields = csv.readRecord();
+            if (fields == null) {
+                return null;
+            }
+            InventoryItemRequest request = new InventoryItemRequest();
+            try {
+                for (int i = 0; i < Math.min(fields.size(), setters.size()); i++) {
+                    String value = fields.get(i).trim();
+                    if (setters.get(i) != null && !value.isEmpty()) {
+                        setters.get(i).accept(request, value);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                return new ImportRow(csv.getRecordLineNumber(), request, e.getMessage());
+            }
+            return new ImportRow(csv.getRecordLineNumber(), request, null);
+        };
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                return new ImportRow(lineNumber[0], objectMapper.readValue(line, InventoryItemRequest.class), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(lineNumber[0], null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    // Same field mapping as InventoryService.createItem and updateItem
+    private static void applyRequest(InventoryItem item, InventoryItemRequest request) {
+        item.setName(request.getName());
+        item.setSku(request.getSku());
+        item.setDescription(request.getDescription());
+        item.setQuantity(request.getQuantity());
+        item.setReorderThreshold(request.getReorderThreshold());
+        item.setUnitPrice(request.getUnitPrice());
+        item.setCategory(request.getCategory());
+        item.setSupplierName(request.getSupplierName());
+        item.setSupplierEmail(request.getSupplierEmail());
+        item.setSupplierPhone(request.getSupplierPhone());
+        item.setLocation(request.getLocation());
+    }
+
+    private static Integer parseInteger(String column, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static BigDecimal parseDecimal(String column, String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private interface RowSource {
+        // The next row, or null at the end of the input
+        ImportRow next() throws IOException;
+    }
+
+    // A parsed row; error is set when it could not be parsed
+    private record ImportRow(long line, InventoryItemRequest request, String error) {
+        String sku() {
+            return request != null ? request.getSku() : null;
+        }
+    }
+
+    private record PendingRow(long line, InventoryItemRequest request, boolean exists) {
+    }
+
+    private record RowError(long line, String sku, String message) {
+    }
+
+    private static class ChunkResult {
+        private int inserted;
+        private int updated;
+        private final List<RowError> errors = new ArrayList<>();
+    }
+}
@@ -0,0 +1,470 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over the name, SKU and description of active items, used
+ * instead of LIKE '%term%' scans. Every three-character window of the lowercased text
+ * maps to a sorted int posting list of document numbers; a query intersects the lists
+ * of its own trigrams and then checks the few candidates for a real substring match.
+ * Terms shorter than three characters are answered by scanning the stored text.
+ * The index is built at startup and kept current from item write events; an event
+ * older than the version already indexed for its item is dropped. Stale documents are
+ * compacted away on a background thread and the result swapped in.
+ */
+@Service
+public class ItemSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemSearchIndex.class);
+
+    private static final int BUILD_CHUNK_SIZE = 5000;
+
+    // Rebuild the postings once this share of documents are stale versions
+    private static final double COMPACT_RATIO = 0.25;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Value("${inventory.search.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    private volatile boolean ready;
+
+    // Changes seen while the startup build or a compaction runs, applied to its result before it is swapped in
+    private List<InventoryItemChangedEvent> pendingEvents;
+
+    private Executor compactionExecutor = task -> {
+        Thread thread = new Thread(task, "search-index-compactor");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingEvents = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            Index built = new Index();
+            Sort sort = Sort.by("id");
+            ScrollPosition position = ScrollPosition.keyset();
+            Window<InventoryItem> window;
+            do {
+                window = inventoryItemRepository.findByIsActiveTrue(position, sort, Limit.of(BUILD_CHUNK_SIZE));
+                for (InventoryItem item : window) {
+                    built.put(item.getId(), item.getVersion(), item.getName(), item.getSku(), item.getDescription());
+                }
+                if (!window.isEmpty()) {
+                    position = window.positionAt(window.size() - 1);
+                }
+            } while (window.hasNext());
+
+            lock.writeLock().lock();
+            try {
+                pendingEvents.forEach(event -> apply(built, event));
+                pendingEvents = null;
+                index = built;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Search index built with {} items and {} trigrams in {} ms",
+                    built.liveCount(), built.postings.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Error while building the search index, searches fall back to the database", e);
+            lock.writeLock().lock();
+            try {
+                pendingEvents = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemChangedEvent event) {
+        if (!enabled || !affectsText(event)) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+            apply(index, event);
+            if (ready && pendingEvents == null && index.needsCompaction()) {
+                // Copying the live documents is cheap; rebuilding their postings is left to the compactor
+                Index live = index.liveCopy();
+                pendingEvents = new ArrayList<>();
+                compactionExecutor.execute(() -> compact(live));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compact(Index live) {
+        try {
+            Index compacted = live.compact();
+            lock.writeLock().lock();
+            try {
+                pendingEvents.forEach(event -> apply(compacted, event));
+                pendingEvents = null;
+                index = compacted;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            logger.error("Error while compacting the search index", e);
+            lock.writeLock().lock();
+            try {
+                pendingEvents = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of matching items for one page, best matches first: exact SKU,
+     * exact name, SKU prefix, name prefix, name substring, SKU substring, then
+     * description; ties are ordered by name and id.
+     */
+    public SearchResult search(String term, long offset, int limit) {
+        String needle = term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            int[] candidates = needle.length() < 3 ? current.liveDocs() : current.candidates(needle);
+
+            // Keep only the best offset + limit matches in a bounded heap
+            int wanted = (int) Math.min(Integer.MAX_VALUE, offset + limit);
+            Comparator<int[]> ranking = Comparator.<int[]>comparingInt(match -> match[1])
+                    .thenComparing(match -> current.names[match[0]], Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparingLong(match -> current.itemIds[match[0]]);
+            PriorityQueue<int[]> best = new PriorityQueue<>(Math.max(1, Math.min(wanted, 1024)), ranking.reversed());
+
+            long total = 0;
+            for (int doc : candidates) {
+                int score = current.score(doc, needle);
+                if (score < 0) {
+                    continue;
+                }
+                total++;
+                if (wanted == 0) {
+                    continue;
+                }
+                int[] match = {doc, score};
+                if (best.size() < wanted) {
+                    best.add(match);
+                } else if (ranking.compare(match, best.peek()) < 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+
+            List<int[]> ordered = new ArrayList<>(best);
+            ordered.sort(ranking);
+            List<Long> itemIds = new ArrayList<>();
+            for (int i = (int) Math.min(offset, ordered.size()); i < ordered.size(); i++) {
+                itemIds.add(current.itemIds[ordered.get(i)[0]]);
+            }
+            return new SearchResult(itemIds, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean affectsText(InventoryItemChangedEvent event) {
+        ItemSnapshot before = event.getBefore();
+        ItemSnapshot after = event.getAfter();
+        if (event.wasActive() != event.isActive() || before == null || after == null) {
+            return true;
+        }
+        return !Objects.equals(before.getName(), after.getName())
+                || !Objects.equals(before.getSku(), after.getSku())
+                || !Objects.equals(before.getDescription(), after.getDescription());
+    }
+
+    private static void apply(Index target, InventoryItemChangedEvent event) {
+        ItemSnapshot after = event.getAfter();
+        if (!after.isNewerThan(target.versions.get(after.getId()))) {
+            return;
+        }
+        if (event.isActive()) {
+            target.put(after.getId(), after.getVersion(), after.getName(), after.getSku(), after.getDescription());
+        } else {
+            target.remove(after.getId(), after.getVersion());
+        }
+    }
+
+    public static class SearchResult {
+        private final List<Long> itemIds;
+        private final long total;
+
+        public SearchResult(List<Long> itemIds, long total) {
+            this.itemIds = itemIds;
+            this.total = total;
+        }
+
+        public List<Long> getItemIds() {
+            return itemIds;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Documents are append-only: changing an item marks its old document deleted and
+     * adds a new one, so posting lists stay sorted without ever being rewritten.
+     */
+    private static final class Index {
+        private long[] itemIds = new long[1024];
+        private String[] names = new String[1024];
+        private String[] skus = new String[1024];
+        private String[] descriptions = new String[1024];
+        private int size;
+        private final BitSet deleted = new BitSet();
+        private int deletedCount;
+        private final Map<Long, Integer> docByItemId = new HashMap<>();
+        private final Map<Long, IntList> postings = new HashMap<>();
+
+        // Last version indexed per item, deleted items included
+        private final Map<Long, Long> versions = new HashMap<>();
+
+        void put(long itemId, Long version, String name, String sku, String description) {
+            remove(itemId, version);
+            if (size == itemIds.length) {
+                int capacity = size * 2;
+                itemIds = Arrays.copyOf(itemIds, capacity);
+                names = Arrays.copyOf(names, capacity);
+                skus = Arrays.copyOf(skus, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+            }
+
+            int doc = size++;
+            itemIds[doc] = itemId;
+            names[doc] = normalize(name);
+            skus[doc] = normalize(sku);
+            descriptions[doc] = normalize(description);
+            docByItemId.put(itemId, doc);
+
+            long[] grams = trigrams(names[doc], skus[doc], descriptions[doc]);
+            for (int i = 0; i < grams.length; i++) {
+                if (i == 0 || grams[i] != grams[i - 1]) {
+                    postings.computeIfAbsent(grams[i], key -> new IntList()).add(doc);
+                }
+            }
+        }
+
+        void remove(long itemId, Long version) {
+            if (version != null) {
+                versions.put(itemId, version);
+            }
+            Integer doc = docByItemId.remove(itemId);
+            if (doc != null) {
+                deleted.set(doc);
+                deletedCount++;
+            }
+        }
+
+        boolean needsCompaction() {
+            return deletedCount > 1000 && deletedCount > size * COMPACT_RATIO;
+        }
+
+        // The documents and versions without postings, for a compaction outside the lock
+        Index liveCopy() {
+            Index copy = new Index();
+            copy.itemIds = Arrays.copyOf(itemIds, size);
+            copy.names = Arrays.copyOf(names, size);
+            copy.skus = Arrays.copyOf(skus, size);
+            copy.descriptions = Arrays.copyOf(descriptions, size);
+            copy.size = size;
+            copy.deleted.or(deleted);
+            copy.versions.putAll(versions);
+            return copy;
+        }
+
+        Index compact() {
+            Index compacted = new Index();
+            for (int doc = 0; doc < size; doc++) {
+                if (!deleted.get(doc)) {
+                    long itemId = itemIds[doc];
+                    compacted.put(itemId, versions.get(itemId), names[doc], skus[doc], descriptions[doc]);
+                }
+            }
+            compacted.versions.putAll(versions);
+            return compacted;
+        }
+
+        int liveCount() {
+            return size - deletedCount;
+        }
+
+        int[] liveDocs() {
+            int[] docs = new int[liveCount()];
+            int count = 0;
+            for (int doc = 0; doc < size; doc++) {
+                if (!deleted.get(doc)) {
+                    docs[count++] = doc;
+                }
+            }
+            return docs;
+        }
+
+        // Documents containing every trigram of the needle, smallest posting list first
+        int[] candidates(String needle) {
+            long[] grams = trigrams(needle, null, null);
+            List<IntList> lists = new ArrayList<>();
+            for (int i = 0; i < grams.length; i++) {
+                if (i > 0 && grams[i] == grams[i - 1]) {
+                    continue;
+                }
+                IntList list = postings.get(grams[i]);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+            int resultSize = result.length;
+            for (int l = 1; l < lists.size() && resultSize > 0; l++) {
+                IntList other = lists.get(l);
+                int kept = 0;
+                int j = 0;
+                for (int i = 0; i < resultSize; i++) {
+                    int doc = result[i];
+                    while (j < other.size && other.values[j] < doc) {
+                        j++;
+                    }
+                    if (j < other.size && other.values[j] == doc) {
+                        result[kept++] = doc;
+                    }
+                }
+                resultSize = kept;
+            }
+            return Arrays.copyOf(result, resultSize);
+        }
+
+        // Lower is better; -1 when the document does not contain the needle
+        int score(int doc, String needle) {
+            if (deleted.get(doc)) {
+                return -1;
+            }
+            String name = names[doc];
+            String sku = skus[doc];
+            String description = descriptions[doc];
+            if (sku != null && sku.equals(needle)) {
+                return 0;
+            }
+            if (name != null && name.equals(needle)) {
+                return 1;
+            }
+            if (sku != null && sku.startsWith(needle)) {
+                return 2;
+            }
+            if (name != null && name.startsWith(needle)) {
+                return 3;
+            }
+            if (name != null && name.contains(needle)) {
+                return 4;
+            }
+            if (sku != null && sku.contains(needle)) {
+                return 5;
+            }
+            if (description != null && description.contains(needle)) {
+                return 6;
+            }
+            return -1;
+        }
+
+        private static String normalize(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+
+        // Sorted trigram keys of all fields, three UTF-16 chars packed into one long
+        private static long[] trigrams(String first, String second, String third) {
+            int count = 0;
+            for (String field : new String[]{first, second, third}) {
+                if (field != null && field.length() >= 3) {
+                    count += field.length() - 2;
+                }
+            }
+            long[] grams = new long[count];
+            int next = 0;
+            for (String field : new String[]{first, second, third}) {
+                if (field == null) {
+                    continue;
+                }
+                for (int i = 0; i + 2 < field.length(); i++) {
+                    grams[next++] = ((long) field.charAt(i) << 32)
+                            | ((long) field.charAt(i + 1) << 16)
+                            | field.charAt(i + 2);
+                }
+            }
+            Arrays.sort(grams);
+            return grams;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.entity.NotificationDeadLetter;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.NotificationDeadLetterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends low-stock alerts off the request path. An alert is queued once a change that
+ * takes an item from healthy to low commits (see {@link LowStockAlertState}); a
+ * coalescer collects everything that arrives within {@code coalesce-window-ms} into
+ * one message per recipient (latest level per item), and each message is sent on a
+ * virtual thread with exponential backoff. Messages that still fail after
+ * {@code max-attempts} are kept as dead letters for a retry.
+ */
+@Service
+public class LowStockAlertDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockAlertDispatcher.class);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private NotificationDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private LowStockAlertState lowStockAlertState;
+
+    @Value("${inventory.alert.dispatch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${inventory.alert.dispatch.coalesce-window-ms:2000}")
+    private long coalesceWindowMs;
+
+    @Value("${inventory.alert.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${inventory.alert.dispatch.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${inventory.alert.dispatch.max-backoff-ms:60000}")
+    private long maxBackoffMs;
+
+    @Value("${inventory.alert.dispatch.max-concurrent-sends:4}")
+    private int maxConcurrentSends;
+
+    private BlockingQueue<ItemSnapshot> queue;
+    private ExecutorService senders;
+    private Semaphore sendPermits;
+    private Thread coalescer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        senders = Executors.newVirtualThreadPerTaskExecutor();
+        // Bounds the SMTP connections in use, virtual threads alone would not
+        sendPermits = new Semaphore(maxConcurrentSends);
+
+        running = true;
+        coalescer = new Thread(this::runCoalescer, "low-stock-alert-coalescer");
+        coalescer.setDaemon(true);
+        coalescer.start();
+    }
+
+    // Runs after commit, so a rolled back stock change never sends an alert
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemChangedEvent event) {
+        if (lowStockAlertState.onItemChanged(event.getAfter())) {
+            enqueue(event.getAfter());
+        }
+    }
+
+    public Page<NotificationDeadLetter> getDeadLetters(Pageable pageable) {
+        return deadLetterRepository.findAllByOrderByCreatedAtDesc(pageable);
+    }
+
+    // Removes the dead letter and sends it again with a fresh set of attempts
+    public void retryDeadLetter(Long id) {
+        NotificationDeadLetter deadLetter = deadLetterRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Dead letter not found with id: " + id));
+        deadLetterRepository.delete(deadLetter);
+
+        dispatch(emailService.createMessage(deadLetter.getRecipient(), deadLetter.getSubject(), deadLetter.getBody()));
+    }
+
+    private void enqueue(ItemSnapshot item) {
+        if (!queue.offer(item)) {
+            logger.warn("Low stock alert queue is full, dead-lettering the alert for SKU {}", item.getSku());
+            deadLetter(emailService.buildLowStockAlert(recipientFor(item), List.of(item)), 0, "Alert queue full");
+        }
+    }
+
+    // Single configured recipient for now; grouping by recipient keeps per-supplier routing a one-method change
+    private String recipientFor(ItemSnapshot item) {
+        return emailService.getAlertRecipient();
+    }
+
+    private void runCoalescer() {
+        while (running || !queue.isEmpty()) {
+            try {
+                ItemSnapshot first = queue.poll(coalesceWindowMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<ItemSnapshot> window = new ArrayList<>();
+                window.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesceWindowMs);
+                long remaining;
+                while (running && (remaining = deadline - System.nanoTime()) > 0) {
+                    ItemSnapshot next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        window.add(next);
+                    }
+                }
+                queue.drainTo(window);
+
+                Map<String, Map<Long, ItemSnapshot>> byRecipient = new LinkedHashMap<>();
+                for (ItemSnapshot item : window) {
+                    byRecipient.computeIfAbsent(recipientFor(item), recipient -> new LinkedHashMap<>())
+                            .put(item.getId(), item);
+                }
+                byRecipient.forEach((recipient, items) ->
+                        dispatch(emailService.buildLowStockAlert(recipient, new ArrayList<>(items.values()))));
+            } catch (InterruptedException e) {
+                // Keep draining; the loop ends once shutdown is requested and the queue is empty
+            } catch (Exception e) {
+                logger.error("Error while coalescing low stock alerts", e);
+            }
+        }
+    }
+
+    private void dispatch(SimpleMailMessage message) {
+        try {
+            sendPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deadLetter(message, 0, "Interrupted before sending");
+            return;
+        }
+
+        senders.execute(() -> {
+            try {
+                deliver(message);
+            } finally {
+                sendPermits.release();
+            }
+        });
+    }
+
+    private void deliver(SimpleMailMessage message) {
+        long backoffMs = initialBackoffMs;
+        Exception lastError = null;
+        int attempt = 0;
+        while (attempt < maxAttempts) {
+            attempt++;
+            try {
+                emailService.send(message);
+                logger.info("Low stock alert sent to {}: {}", String.join(",", message.getTo()), message.getSubject());
+                return;
+            } catch (Exception e) {
+                lastError = e;
+                if (attempt == maxAttempts) {
+                    break;
+                }
+                logger.warn("Failed to send low stock alert (attempt {} of {}), retrying in {} ms: {}",
+                        attempt, maxAttempts, backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+
+        logger.error("Giving up on low stock alert after {} attempts: {}", attempt, message.getSubject(), lastError);
+        deadLetter(message, attempt, lastError != null ? lastError.getMessage() : "Interrupted");
+    }
+
+    private void deadLetter(SimpleMailMessage message, int attempts, String error) {
+        try {
+            String recipient = message.getTo() != null ? String.join(",", message.getTo()) : null;
+            String lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+            deadLetterRepository.save(new NotificationDeadLetter(recipient, message.getSubject(), message.getText(),
+                    attempts, lastError));
+        } catch (Exception e) {
+            logger.error("Could not store dead letter for low stock alert: {}", message.getSubject(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        coalescer.interrupt();
+        coalescer.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Sends still backing off are interrupted and dead-lettered rather than lost
+        senders.shutdown();
+        if (!senders.awaitTermination(10, TimeUnit.SECONDS)) {
+            senders.shutdownNow();
+            senders.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
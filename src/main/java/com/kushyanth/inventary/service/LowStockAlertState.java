@@ -0,0 +1,116 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.dto.LowStockLevel;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Alert state per item, so alerts follow transitions instead of every write that
+ * leaves an item low. An alert is due only when an item crosses from healthy to low,
+ * and not again within {@code suppression-window} of its previous alert even if it
+ * recovers and drops in between. Items already low at startup are loaded as low, so
+ * a restart does not resend their alerts. Items that went low since the last daily
+ * report are remembered in memory for that report. A snapshot older than the one last
+ * recorded for the item comes from an earlier commit delivered late and is ignored.
+ */
+@Component
+public class LowStockAlertState {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockAlertState.class);
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Value("${inventory.alert.suppression-window:1h}")
+    private Duration suppressionWindow;
+
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+    private final Set<Long> newlyLow = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            int loaded = 0;
+            for (LowStockLevel level : inventoryItemRepository.findLowStockLevels()) {
+                // Writes seen before the load finished are newer than this read
+                if (states.putIfAbsent(level.getId(), new State(true, null, level.getVersion())) == null) {
+                    loaded++;
+                }
+            }
+            logger.info("Low stock alert state loaded with {} low items", loaded);
+        } catch (Exception e) {
+            logger.error("Error while loading low stock alert state", e);
+        }
+    }
+
+    /**
+     * Records the item's current level and returns whether an alert should be sent.
+     */
+    public boolean onItemChanged(ItemSnapshot item) {
+        boolean low = item.isActive() && item.isLowStock();
+        boolean[] alert = {false};
+
+        states.compute(item.getId(), (id, state) -> {
+            if (state != null && !item.isNewerThan(state.version)) {
+                return state;
+            }
+            Long version = item.getVersion() != null ? item.getVersion() : state != null ? state.version : null;
+            Instant lastAlertAt = state != null ? state.lastAlertAt : null;
+            if (!low) {
+                newlyLow.remove(id);
+                return new State(false, lastAlertAt, version);
+            }
+            if (state != null && state.low) {
+                return new State(true, lastAlertAt, version);
+            }
+
+            newlyLow.add(id);
+            Instant now = Instant.now();
+            if (lastAlertAt != null && lastAlertAt.plus(suppressionWindow).isAfter(now)) {
+                logger.debug("Suppressing low stock alert for SKU {}, last sent at {}", item.getSku(), lastAlertAt);
+                return new State(true, lastAlertAt, version);
+            }
+            alert[0] = true;
+            return new State(true, now, version);
+        });
+
+        return alert[0];
+    }
+
+    // Ids of items that went low since the previous call
+    public Set<Long> drainNewlyLow() {
+        Set<Long> drained = new HashSet<>();
+        for (Long id : newlyLow) {
+            if (newlyLow.remove(id)) {
+                drained.add(id);
+            }
+        }
+        return drained;
+    }
+
+    private static final class State {
+        private final boolean low;
+        private final Instant lastAlertAt;
+        private final Long version;
+
+        State(boolean low, Instant lastAlertAt, Long version) {
+            this.low = low;
+            this.lastAlertAt = lastAlertAt;
+            this.version = version;
+        }
+    }
+}
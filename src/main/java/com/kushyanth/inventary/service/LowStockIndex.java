@@ -0,0 +1,159 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.dto.LowStockLevel;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ids of active low-stock items ordered by shortfall (reorder threshold minus
+ * quantity, largest first). Loaded at startup from the indexed low_stock column and
+ * kept current from item write events, so low-stock listings never scan the table.
+ * Events are applied in version order per item: a snapshot older than the last one
+ * applied comes from a write that committed earlier and is dropped.
+ */
+@Service
+public class LowStockIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockIndex.class);
+
+    private static final Comparator<Entry> BY_SHORTFALL = Comparator.comparingInt(Entry::shortfall).reversed()
+            .thenComparingLong(Entry::itemId);
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> ordered = new ConcurrentSkipListSet<>(BY_SHORTFALL);
+
+    // Version of the last snapshot applied per item, guarded by this
+    private final Map<Long, Long> appliedVersions = new HashMap<>();
+    private volatile boolean ready;
+
+    // Changes seen while the startup load runs, applied on top of it
+    private List<ItemSnapshot> pendingChanges;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<Long> getItemIds(long offset, int limit) {
+        List<Long> itemIds = new ArrayList<>(Math.min(limit, entries.size()));
+        Iterator<Entry> iterator = ordered.iterator();
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (itemIds.size() < limit && iterator.hasNext()) {
+            itemIds.add(iterator.next().itemId());
+        }
+        return itemIds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        try {
+            // Rows written before the low_stock column existed
+            Integer backfilled = new TransactionTemplate(transactionManager)
+                    .execute(status -> inventoryItemRepository.backfillLowStock());
+            if (backfilled != null && backfilled > 0) {
+                logger.info("Backfilled the low stock flag of {} items", backfilled);
+            }
+
+            List<LowStockLevel> levels = inventoryItemRepository.findLowStockLevels();
+            synchronized (this) {
+                for (LowStockLevel level : levels) {
+                    // A change seen during the load may already be newer than this read
+                    if (isNewer(level.getId(), level.getVersion())) {
+                        put(level.getId(), level.getReorderThreshold() - level.getQuantity());
+                        appliedVersions.put(level.getId(), level.getVersion());
+                    }
+                }
+                pendingChanges.forEach(this::apply);
+                pendingChanges = null;
+                ready = true;
+            }
+            logger.info("Low stock index loaded with {} items", entries.size());
+        } catch (Exception e) {
+            logger.error("Error while loading the low stock index, low stock reads fall back to the database", e);
+            synchronized (this) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemChanged(InventoryItemChangedEvent event) {
+        if (pendingChanges != null) {
+            pendingChanges.add(event.getAfter());
+        }
+        apply(event.getAfter());
+    }
+
+    private void apply(ItemSnapshot item) {
+        if (!item.isNewerThan(appliedVersions.get(item.getId()))) {
+            return;
+        }
+        if (item.getVersion() != null) {
+            appliedVersions.put(item.getId(), item.getVersion());
+        }
+
+        if (item.isActive() && item.isLowStock()) {
+            put(item.getId(), item.getReorderThreshold() - item.getQuantity());
+        } else {
+            remove(item.getId());
+        }
+    }
+
+    private boolean isNewer(Long itemId, Long version) {
+        Long applied = appliedVersions.get(itemId);
+        return version == null || applied == null || version > applied;
+    }
+
+    private void put(Long itemId, int shortfall) {
+        Entry entry = new Entry(itemId, shortfall);
+        Entry previous = entries.put(itemId, entry);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+        ordered.add(entry);
+    }
+
+    private void remove(Long itemId) {
+        Entry previous = entries.remove(itemId);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+    }
+
+    private record Entry(long itemId, int shortfall) {
+    }
+}
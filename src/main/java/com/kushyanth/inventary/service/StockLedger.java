@@ -0,0 +1,372 @@
+package com.kushyanth.inventary.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kushyanth.inventary.dto.ChangeLogEntry;
+import com.kushyanth.inventary.dto.StockLevelResponse;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.exception.InsufficientStockException;
+import com.kushyanth.inventary.repository.InventoryChangeLogJdbcRepository;
+import com.kushyanth.inventary.repository.InventoryItemJdbcRepository;
+import com.kushyanth.inventary.repository.InventoryItemJdbcRepository.StockDelta;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import com.kushyanth.inventary.repository.StockLedgerCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Optional in-memory ledger that owns the quantity of items once their stock is changed
+ * through it. A change takes the item's lock stripe, checks and updates the quantity in
+ * memory and appends the change log entry to a local journal, so hot SKUs never wait on
+ * the database row lock. A flusher thread writes everything journaled since the last
+ * flush in one transaction: each item's net change as one relative UPDATE, the change
+ * logs as JDBC batches and the journal sequence reached. Item change events are published
+ * per flush, so caches, indexes and alerts follow with a delay of one flush interval.
+ *
+ * <p>Journal writes reach the OS on every change and are synced to disk before each
+ * flush, so a crashed process loses nothing and a crashed host at most the last interval.
+ * At startup the journal entries above the sequence stored in the database are applied
+ * before any change is accepted. Writes that bypass the ledger (item edits, batches,
+ * imports, deletes) release the item first: its pending changes are flushed and the
+ * quantity is read from the database again on the next change.
+ */
+@Service
+public class StockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final long MAX_RETRY_BACKOFF_MS = 30000;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryItemJdbcRepository itemJdbcRepository;
+
+    @Autowired
+    private InventoryChangeLogJdbcRepository changeLogJdbcRepository;
+
+    @Autowired
+    private StockLedgerCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.stock.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.stock.ledger.stripes:64}")
+    private int stripeCount;
+
+    @Value("${inventory.stock.ledger.flush-interval-ms:100}")
+    private long flushIntervalMs;
+
+    @Value("${inventory.stock.ledger.journal.path:data/stock-ledger.journal}")
+    private String journalPath;
+
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final Object journalLock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ReentrantLock[] stripes;
+    private ChangeLogJournal journal;
+    private TransactionTemplate transactionTemplate;
+    private List<ChangeLogEntry> pending = new ArrayList<>();
+    private Thread flusher;
+    private volatile Thread flushingThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        // Power of two so the stripe is a mask of the id hash
+        stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        // Flushes may run in afterCommit callbacks, which must not reuse the finished transaction
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        journal = new ChangeLogJournal(Path.of(journalPath), objectMapper, false);
+        List<ChangeLogEntry> journaled = journal.open();
+        long lastApplied = checkpointRepository.findLastSequence();
+        journal.advanceTo(lastApplied);
+
+        List<ChangeLogEntry> replay = journaled.stream()
+                .filter(entry -> entry.getSequence() > lastApplied)
+                .toList();
+        if (!replay.isEmpty()) {
+            logger.info("Applying {} stock changes from the stock ledger journal", replay.size());
+            write(replay, false);
+        }
+        if (!journaled.isEmpty()) {
+            journal.checkpoint(journaled.get(journaled.size() - 1).getSequence());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "stock-ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public StockLevelResponse adjust(Long itemId, int delta, boolean floorAtZero,
+                                     InventoryChangeLog.ChangeType changeType, String reason, String username) {
+        return apply(itemId, quantity -> {
+            int newQuantity = quantity + delta;
+            if (newQuantity < 0 && !floorAtZero) {
+                throw new InsufficientStockException("Cannot apply " + delta + " to item " + itemId
+                        + " with quantity " + quantity);
+            }
+            return Math.max(newQuantity, 0);
+        }, changeType, reason, username);
+    }
+
+    public StockLevelResponse set(Long itemId, int quantity,
+                                  InventoryChangeLog.ChangeType changeType, String reason, String username) {
+        return apply(itemId, current -> quantity, changeType, reason, username);
+    }
+
+    private StockLevelResponse apply(Long itemId, IntUnaryOperator change,
+                                     InventoryChangeLog.ChangeType changeType, String reason, String username) {
+        ReentrantLock stripe = stripeFor(itemId);
+        stripe.lock();
+        try {
+            Cell cell = cells.get(itemId);
+            if (cell == null) {
+                ItemSnapshot item = inventoryItemRepository.findSnapshotById(itemId)
+                        .filter(ItemSnapshot::isActive)
+                        .orElseThrow(() -> new RuntimeException("Item not found with id: " + itemId));
+                cell = new Cell(item.getSku(), item.getReorderThreshold(), item.getQuantity());
+                cells.put(itemId, cell);
+            }
+
+            int oldQuantity = cell.quantity;
+            int newQuantity = change.applyAsInt(oldQuantity);
+            ChangeLogEntry entry = new ChangeLogEntry(itemId, oldQuantity, newQuantity, changeType, reason, username);
+            // Journal order is the order changes to one item were made in, since its stripe is held
+            synchronized (journalLock) {
+                journal.append(List.of(entry));
+                pending.add(entry);
+            }
+            cell.quantity = newQuantity;
+
+            return new StockLevelResponse(itemId, cell.sku, oldQuantity, newQuantity,
+                    cell.reorderThreshold, newQuantity <= cell.reorderThreshold);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Hands the given items back to the database before a write that does not go through
+     * the ledger: their pending changes are flushed and they are dropped from memory.
+     */
+    public void release(Collection<Long> itemIds, Collection<String> skus) {
+        if (!enabled || cells.isEmpty()) {
+            return;
+        }
+
+        List<Long> tracked = new ArrayList<>();
+        cells.forEach((itemId, cell) -> {
+            if (itemIds.contains(itemId) || skus.contains(cell.sku)) {
+                tracked.add(itemId);
+            }
+        });
+        if (tracked.isEmpty()) {
+            return;
+        }
+
+        // Stripes are locked in index order so two releases cannot deadlock
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        tracked.forEach(itemId -> stripeIndexes.add(stripeIndex(itemId)));
+        List<ReentrantLock> locked = new ArrayList<>();
+        try {
+            for (int index : stripeIndexes) {
+                stripes[index].lock();
+                locked.add(stripes[index]);
+            }
+            flush();
+            tracked.forEach(cells::remove);
+        } finally {
+            locked.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    // A write elsewhere may have raced with a change here, so the item is read again next time
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemChangedEvent event) {
+        if (!enabled || Thread.currentThread() == flushingThread) {
+            return;
+        }
+        Long itemId = event.getAfter().getId();
+        if (cells.containsKey(itemId)) {
+            release(List.of(itemId), List.of());
+        }
+    }
+
+    /** Writes every change journaled so far to the database. */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        flushLock.lock();
+        flushingThread = Thread.currentThread();
+        List<ChangeLogEntry> batch;
+        try {
+            synchronized (journalLock) {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                journal.force();
+                write(batch, true);
+            } catch (RuntimeException e) {
+                // Keep the changes for the next flush, ahead of those made since
+                synchronized (journalLock) {
+                    batch.addAll(pending);
+                    pending = batch;
+                }
+                throw e;
+            }
+            journal.checkpoint(batch.get(batch.size() - 1).getSequence());
+        } finally {
+            flushingThread = null;
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<ChangeLogEntry> entries, boolean publishEvents) {
+        Map<Long, StockDelta> deltas = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            deltas.merge(entry.getItemId(),
+                    new StockDelta(entry.getItemId(), entry.getQuantityChange(), entry.getChangedBy()),
+                    (older, newer) -> new StockDelta(older.itemId(), older.delta() + newer.delta(), newer.updatedBy()));
+        }
+        long lastSequence = entries.get(entries.size() - 1).getSequence();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemJdbcRepository.batchApplyStockDeltas(new ArrayList<>(deltas.values()), LocalDateTime.now());
+            changeLogJdbcRepository.batchInsert(entries);
+            checkpointRepository.updateLastSequence(lastSequence);
+
+            if (publishEvents) {
+                for (ItemSnapshot after : inventoryItemRepository.findSnapshotsByIdIn(deltas.keySet())) {
+                    int delta = deltas.get(after.getId()).delta();
+                    eventPublisher.publishEvent(new InventoryItemChangedEvent(
+                            after.withQuantity(after.getQuantity() - delta), after));
+                }
+            }
+        });
+    }
+
+    private void runFlusher() {
+        long backoffMs = flushIntervalMs;
+        while (running) {
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                // Shutdown; the final flush happens in shutdown()
+            }
+            try {
+                flush();
+                backoffMs = flushIntervalMs;
+            } catch (RuntimeException e) {
+                backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+                logger.error("Failed to flush stock ledger, retrying in {} ms", backoffMs, e);
+            }
+        }
+    }
+
+    private ReentrantLock stripeFor(Long itemId) {
+        return stripes[stripeIndex(itemId)];
+    }
+
+    private int stripeIndex(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Could not flush stock ledger at shutdown, the journal keeps the changes", e);
+        }
+        journal.close();
+    }
+
+    // Guarded by the item's stripe
+    private static class Cell {
+        private final String sku;
+        private final int reorderThreshold;
+        private int quantity;
+
+        Cell(String sku, int reorderThreshold, int quantity) {
+            this.sku = sku;
+            this.reorderThreshold = reorderThreshold;
+            this.quantity = quantity;
+        }
+    }
+}
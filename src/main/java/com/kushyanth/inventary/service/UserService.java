@@ -0,0 +1,76 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.entity.Role;
+import com.kushyanth.inventary.entity.User;
+import com.kushyanth.inventary.event.UserTokensRevokedEvent;
+import com.kushyanth.inventary.repository.RoleRepository;
+import com.kushyanth.inventary.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Changes to a user's access. Each one bumps the user's token version, which is embedded
+ * in every token issued to them, so tokens issued before the change are rejected.
+ */
+@Service
+public class UserService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public User updateRoles(Long id, Set<String> roleNames) {
+        User user = findUser(id);
+        Set<Role> roles = new HashSet<>();
+        for (String roleName : roleNames) {
+            roles.add(roleRepository.findByName(toRoleName(roleName))
+                    .orElseThrow(() -> new RuntimeException("Error: Role is not found.")));
+        }
+        user.setRoles(roles);
+        return revoke(user);
+    }
+
+    @Transactional
+    public User setActive(Long id, boolean active) {
+        User user = findUser(id);
+        user.setIsActive(active);
+        return revoke(user);
+    }
+
+    @Transactional
+    public User revokeTokens(Long id) {
+        return revoke(findUser(id));
+    }
+
+    private User revoke(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserTokensRevokedEvent(saved.getUsername()));
+        return saved;
+    }
+
+    private User findUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+    }
+
+    private static Role.RoleName toRoleName(String roleName) {
+        return switch (roleName) {
+            case "admin" -> Role.RoleName.ROLE_ADMIN;
+            case "manager" -> Role.RoleName.ROLE_WAREHOUSE_MANAGER;
+            case "viewer" -> Role.RoleName.ROLE_VIEWER;
+            default -> throw new IllegalArgumentException("Unknown role: " + roleName);
+        };
+    }
+}
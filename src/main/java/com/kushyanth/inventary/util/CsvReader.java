@@ -0,0 +1,110 @@
+package com.kushyanth.inventary.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time: quoted fields may contain separators,
+ * doubled quotes and line breaks, and lines end in LF or CRLF. Only the current
+ * record is held in memory; records longer than the limit are rejected.
+ */
+public class CsvReader {
+
+    private static final int MAX_RECORD_CHARS = 1 << 20;
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private int pushedBack = -1;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Line the last record read started on, for error messages
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    /** The next record's fields, or null at the end of the input. Blank lines are skipped. */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            endLine(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLineNumber = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        int recordChars = 0;
+        boolean quoted = false;
+        boolean fieldWasQuoted = false;
+        field.setLength(0);
+        while (true) {
+            if (++recordChars > MAX_RECORD_CHARS) {
+                throw new IllegalArgumentException("CSV record on line " + recordLineNumber + " is too long");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field on line " + recordLineNumber);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        pushedBack = next;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty() && !fieldWasQuoted) {
+                quoted = true;
+                fieldWasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldWasQuoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c != -1) {
+                    endLine(c);
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // Called on CR or LF; consumes the LF of a CRLF
+    private void endLine(int c) throws IOException {
+        lineNumber++;
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                pushedBack = next;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,101 @@
+package com.kushyanth.inventary.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns keyset scroll positions into opaque URL-safe tokens and back. Each key value
+ * is stored with its type so it binds to the query with the same type it was read
+ * with, and the token records the sort it was issued for so it cannot be replayed
+ * against a different ordering.
+ */
+@Component
+public class CursorCodec {
+
+    private static final TypeReference<Map<String, Object>> TOKEN_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public String encode(KeysetScrollPosition position, String sortSpec) {
+        Map<String, List<String>> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((property, value) -> keys.put(property, typed(value)));
+
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put("s", sortSpec);
+        token.put("k", keys);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(token));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    // A null or blank cursor starts from the first page
+    @SuppressWarnings("unchecked")
+    public ScrollPosition decode(String cursor, String sortSpec) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            Map<String, Object> token = objectMapper.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), TOKEN_TYPE);
+            if (!sortSpec.equals(token.get("s"))) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            ((Map<String, List<String>>) token.get("k"))
+                    .forEach((property, value) -> keys.put(property, untyped(value)));
+            return ScrollPosition.forward(keys);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static List<String> typed(Object value) {
+        if (value instanceof Long) {
+            return List.of("l", value.toString());
+        } else if (value instanceof Integer) {
+            return List.of("i", value.toString());
+        } else if (value instanceof LocalDateTime) {
+            return List.of("t", value.toString());
+        } else if (value instanceof BigDecimal) {
+            return List.of("d", value.toString());
+        } else if (value instanceof String) {
+            return List.of("s", (String) value);
+        }
+        throw new IllegalArgumentException("Unsupported cursor key type: "
+                + (value != null ? value.getClass().getName() : "null"));
+    }
+
+    private static Object untyped(List<String> value) {
+        String raw = value.get(1);
+        switch (value.get(0)) {
+            case "l":
+                return Long.valueOf(raw);
+            case "i":
+                return Integer.valueOf(raw);
+            case "t":
+                return LocalDateTime.parse(raw);
+            case "d":
+                return new BigDecimal(raw);
+            case "s":
+                return raw;
+            default:
+                throw new IllegalArgumentException("Unknown cursor key type: " + value.get(0));
+        }
+    }
+}
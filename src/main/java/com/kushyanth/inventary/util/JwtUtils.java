@@ -1,58 +1,144 @@
 package com.kushyanth.inventary.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.kushyanth.inventary.security.UserPrincipal;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * Issues and verifies JWTs. The signing key and parser are built once; each token is
+ * parsed once per verification, and verified claims are cached under the token's
+ * SHA-256 until the token expires, so repeat requests with the same token skip the
+ * HMAC check and JSON parsing. The cached claims are shared and must not be modified.
+ */
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
 
-    @Value("${jwt.expiration}")
-    private int jwtExpirationMs;
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final int jwtExpirationMs;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // Null when jwt.cache.maximum-size is 0
+    private final Cache<String, Claims> verifiedTokens;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Autowired
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.expiration}") int jwtExpirationMs,
+                    @Value("${jwt.cache.maximum-size:10000}") long cacheSize) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = cacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(cacheSize)
+                        .expireAfter(new UntilTokenExpiry())
+                        .build()
+                : null;
     }
 
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+
+        // Enough to rebuild the principal on each request without loading the user
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        Claims claims = getClaimsFromJwtToken(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    // Validates the token and returns its claims in one parse, or null when it is not valid
+    public Claims getClaimsFromJwtToken(String authToken) {
+        if (authToken == null || authToken.isEmpty()) {
+            logger.error("JWT claims string is empty");
+            return null;
+        }
+        if (verifiedTokens == null) {
+            return parse(authToken);
+        }
+
+        String key = hash(authToken);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims == null) {
+            claims = parse(authToken);
+            if (claims != null && claims.getExpiration() != null) {
+                verifiedTokens.put(key, claims);
+            }
+        }
+        return claims;
+    }
+
+    // Null for tokens issued before roles were embedded, which need a user lookup instead
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (roles == null || userId == null) {
+            return null;
+        }
+
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return UserPrincipal.fromClaims(userId.longValue(), claims.getSubject(),
+                claims.get(CLAIM_EMAIL, String.class),
+                roles.stream().map(String::valueOf).collect(Collectors.toList()),
+                tokenVersion != null ? tokenVersion.intValue() : 0);
     }
 
     public boolean validateJwtToken(String authToken) {
+        return getClaimsFromJwtToken(authToken) != null;
+    }
+
+    private Claims parse(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -61,8 +147,34 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("JWT signature is invalid: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    private static String hash(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    // Drops each entry when its token expires, so an expired token is never served from the cache
+    private static class UntilTokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package com.kushyanth.inventary.util;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request time spent in each phase, held in a thread local while the server timing
+ * filter is active. Call sites take {@code System.nanoTime()} before a phase and call
+ * {@link #record} after it; without an active collector recording is a no-op.
+ * Work done on other threads (queued alerts, change log flushes) is not attributed.
+ */
+public final class RequestTimings {
+
+    public enum Phase {
+        JWT("jwt", "JWT parsing"),
+        USER("user", "Principal lookup"),
+        AUTHZ("authz", "Authorization"),
+        DB("db", "SQL"),
+        SMTP("smtp", "SMTP"),
+        SERIALIZE("serialize", "JSON serialization");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+    private final int[] counts = new int[Phase.values().length];
+
+    private RequestTimings() {
+    }
+
+    public static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    // Adds the time since startNanos to the phase of the current request, if any
+    public static void record(Phase phase, long startNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.nanos[phase.ordinal()] += System.nanoTime() - startNanos;
+            timings.counts[phase.ordinal()]++;
+        }
+    }
+
+    public long getTotalNanos() {
+        return System.nanoTime() - startedAt;
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public int getCount(Phase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    /**
+     * Server-Timing header value, e.g. {@code jwt;dur=0.21, db;dur=3.40;desc="SQL (4)", total;dur=9.87}.
+     * Phases that did not run are left out.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            if (counts[phase.ordinal()] == 0) {
+                continue;
+            }
+            header.append(phase.getMetricName()).append(";dur=").append(millis(nanos[phase.ordinal()]))
+                    .append(";desc=\"").append(phase.getDescription());
+            if (phase == Phase.DB) {
+                header.append(" (").append(counts[phase.ordinal()]).append(')');
+            }
+            header.append("\", ");
+        }
+        return header.append("total;dur=").append(millis(getTotalNanos())).toString();
+    }
+
+    // key=value pairs for the slow request log line
+    public String toLogFields() {
+        StringBuilder fields = new StringBuilder("total_ms=").append(millis(getTotalNanos()));
+        for (Phase phase : Phase.values()) {
+            fields.append(' ').append(phase.getMetricName()).append("_ms=").append(millis(nanos[phase.ordinal()]));
+        }
+        return fields.append(" sql_statements=").append(counts[Phase.DB.ordinal()]).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
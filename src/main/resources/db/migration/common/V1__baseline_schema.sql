@@ -0,0 +1,72 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and skip this script.
+
+create table inventory_items (
+    id bigint not null auto_increment,
+    name varchar(100) not null,
+    sku varchar(50) not null,
+    description varchar(500),
+    quantity integer not null,
+    reorder_threshold integer not null,
+    unit_price decimal(10,2),
+    category varchar(50),
+    supplier_name varchar(100),
+    supplier_email varchar(100),
+    supplier_phone varchar(20),
+    location varchar(50),
+    created_at datetime(6),
+    updated_at datetime(6),
+    created_by varchar(255),
+    updated_by varchar(255),
+    is_active bit,
+    primary key (id)
+) engine=InnoDB;
+
+create table inventory_change_logs (
+    id bigint not null auto_increment,
+    inventory_item_id bigint not null,
+    old_quantity integer not null,
+    new_quantity integer not null,
+    quantity_change integer not null,
+    change_type enum ('ADJUSTMENT','DAMAGED','EXPIRED','INITIAL_STOCK','RETURNED','SOLD','STOCK_IN','STOCK_OUT') not null,
+    reason varchar(500),
+    changed_by varchar(100),
+    change_date datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table roles (
+    id bigint not null auto_increment,
+    name enum ('ROLE_ADMIN','ROLE_VIEWER','ROLE_WAREHOUSE_MANAGER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    username varchar(20) not null,
+    email varchar(50) not null,
+    password varchar(120) not null,
+    first_name varchar(50),
+    last_name varchar(50),
+    is_active bit,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (role_id, user_id)
+) engine=InnoDB;
+
+alter table inventory_items add constraint UKp0mih1lkha7t38jh46r3uu0eg unique (sku);
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table inventory_change_logs add constraint FKt9gjulo1odlx1bbuutuimtuj9
+    foreign key (inventory_item_id) references inventory_items (id);
+alter table user_roles add constraint FKh8ciramu9cc9q3qcqiv4ue8a6
+    foreign key (role_id) references roles (id);
+alter table user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+    foreign key (user_id) references users (id);
@@ -0,0 +1,15 @@
+-- Indexes behind the change log listings and the item filters. Each change log index
+-- ends in the sort key (change_date, then id) so pages are read in order without a sort.
+-- SchemaIndexCheck lists the same names and warns at startup if any is missing.
+
+-- Item history (offset and keyset pages); also serves the foreign key
+create index idx_change_logs_item_date on inventory_change_logs (inventory_item_id, change_date, id);
+-- All changes, recent activity and date ranges
+create index idx_change_logs_date on inventory_change_logs (change_date, id);
+create index idx_change_logs_changed_by_date on inventory_change_logs (changed_by, change_date);
+create index idx_change_logs_type_date on inventory_change_logs (change_type, change_date);
+
+-- Filters, distinct values and per-dimension counts over active items
+create index idx_inventory_items_active_category on inventory_items (is_active, category);
+create index idx_inventory_items_active_supplier on inventory_items (is_active, supplier_name);
+create index idx_inventory_items_active_location on inventory_items (is_active, location);
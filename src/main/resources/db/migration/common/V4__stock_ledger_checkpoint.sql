@@ -0,0 +1,10 @@
+-- Highest stock ledger journal sequence whose changes are in the database. It is written in
+-- the same transaction as the flushed stock changes, so a journal replay after a crash skips
+-- everything at or below it and applies each change exactly once.
+create table stock_ledger_checkpoint (
+    id integer not null,
+    last_sequence bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into stock_ledger_checkpoint (id, last_sequence) values (1, 0);
@@ -0,0 +1,2 @@
+-- Optimistic locking for inventory items (InventoryItem.version). Existing rows start at 0.
+alter table inventory_items add column version bigint not null default 0;
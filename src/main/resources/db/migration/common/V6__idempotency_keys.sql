@@ -0,0 +1,15 @@
+-- Responses remembered for Idempotency-Key requests. key_hash is SHA-256 of the user and the
+-- key, request_hash SHA-256 of the method, URI and body. Rows past expires_at are purged.
+create table idempotency_keys (
+    key_hash char(64) not null,
+    request_hash char(64) not null,
+    status_code integer not null,
+    content_type varchar(100),
+    etag varchar(64),
+    body mediumblob,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    primary key (key_hash)
+) engine=InnoDB;
+
+create index idx_idempotency_keys_expires on idempotency_keys (expires_at);
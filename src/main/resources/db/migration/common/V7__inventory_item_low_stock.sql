@@ -0,0 +1,5 @@
+-- Low-stock flag maintained on every write. Existing rows are left null here and
+-- filled in by LowStockIndex at startup (backfillLowStock), which uses the same rule.
+alter table inventory_items add column low_stock bit;
+
+create index idx_inventory_items_active_low_stock on inventory_items (is_active, low_stock);
@@ -0,0 +1,2 @@
+-- Embedded in issued tokens as the ver claim; incrementing it revokes the user's tokens
+alter table users add column token_version integer not null default 0;
@@ -0,0 +1,11 @@
+-- Low-stock alert emails that still failed after every retry
+create table notification_dead_letters (
+    id bigint not null auto_increment,
+    recipient varchar(255),
+    subject varchar(255),
+    body TEXT,
+    attempts integer,
+    last_error varchar(1000),
+    created_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
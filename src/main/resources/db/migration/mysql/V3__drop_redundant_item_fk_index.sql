@@ -0,0 +1,3 @@
+-- idx_change_logs_item_date starts with inventory_item_id and now backs the item foreign key,
+-- so the single-column index MySQL created for the constraint only slows down inserts.
+alter table inventory_change_logs drop index FKt9gjulo1odlx1bbuutuimtuj9;
@@ -0,0 +1,85 @@
+package com.kushyanth.inventary;
+
+import com.kushyanth.inventary.dto.InventoryItemRequest;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import com.kushyanth.inventary.service.InventoryStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Base for the integration tests. Every subclass runs in the same application context
+ * on the test database from application-test.properties, so a test that needs other
+ * settings changes the bean for its own duration instead of adding properties here.
+ * Items and change logs are removed after each test, so no test sees another's data.
+ * Tests that seed items without going through InventoryService use {@link #saveItems},
+ * so the in-memory views know every row the cleanup removes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public abstract class IntegrationTestSupport {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryStatsService inventoryStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Deactivates the items first so caches, indexes, facets and counters drop them as after a delete
+    @AfterEach
+    void deleteItems() {
+        for (InventoryItem item : inventoryItemRepository.findAll()) {
+            if (!item.getIsActive()) {
+                continue;
+            }
+            ItemSnapshot before = ItemSnapshot.of(item);
+            item.setIsActive(false);
+            eventPublisher.publishEvent(new InventoryItemChangedEvent(before, ItemSnapshot.of(item)));
+        }
+        jdbcTemplate.update("DELETE FROM inventory_change_logs");
+        jdbcTemplate.update("DELETE FROM inventory_items");
+
+        // Every item reached the views, so this finds no drift unless a test skipped its events
+        inventoryStatsService.reconcile();
+    }
+
+    // Saves the items and publishes their creation, as the bulk import does for its JDBC inserts
+    protected List<InventoryItem> saveItems(List<InventoryItem> items) {
+        List<InventoryItem> saved = inventoryItemRepository.saveAll(items);
+        for (InventoryItem item : saved) {
+            eventPublisher.publishEvent(new InventoryItemChangedEvent(null, ItemSnapshot.of(item)));
+        }
+        return saved;
+    }
+
+    protected static InventoryItemRequest itemRequest(String sku, int quantity) {
+        InventoryItemRequest request = new InventoryItemRequest();
+        request.setName("Test item " + sku);
+        request.setSku(sku);
+        request.setQuantity(quantity);
+        request.setReorderThreshold(3);
+        request.setUnitPrice(new BigDecimal("1.00"));
+        return request;
+    }
+}
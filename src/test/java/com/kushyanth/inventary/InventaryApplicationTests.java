@@ -1,12 +1,8 @@
 package com.kushyanth.inventary;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
-@ActiveProfiles("test")
-class InventaryApplicationTests {
+class InventaryApplicationTests extends IntegrationTestSupport {
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,33 @@
+package com.kushyanth.inventary.config;
+
+import com.kushyanth.inventary.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ActuatorSecurityTests extends IntegrationTestSupport {
+
+    @Test
+    void onlyHealthIsOpen() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void metricsNeedAnAdminAccount() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("viewer", "viewer123")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+        // Tests run without metrics export, so the registry is checked through the metrics endpoint
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("admin", "admin123")))
+                .andExpect(status().isOk());
+    }
+}
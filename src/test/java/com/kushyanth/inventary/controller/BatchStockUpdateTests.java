@@ -0,0 +1,174 @@
+package com.kushyanth.inventary.controller;
+
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.dto.StockUpdateRequest;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.repository.InventoryChangeLogRepository;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import com.kushyanth.inventary.service.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WithMockUser(username = "admin", roles = "ADMIN")
+class BatchStockUpdateTests extends IntegrationTestSupport {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void linesThatCannotBeAppliedAreReportedAndTheRestAreWritten() throws Exception {
+        InventoryItem item = inventoryService.createItem(itemRequest("BATCH-1", 10));
+        String body = "{\"updates\":["
+                + "{\"itemId\":" + (item.getId() + 1000) + ",\"newQuantity\":5,\"changeType\":\"ADJUSTMENT\"},"
+                + "{\"sku\":\"BATCH-MISSING\",\"newQuantity\":5,\"changeType\":\"ADJUSTMENT\"},"
+                + "{\"newQuantity\":5,\"changeType\":\"ADJUSTMENT\"},"
+                + "{\"sku\":\"BATCH-1\",\"newQuantity\":-1,\"changeType\":\"ADJUSTMENT\"},"
+                + "{\"sku\":\"BATCH-1\",\"newQuantity\":7,\"changeType\":\"SOLD\"}]}";
+
+        mockMvc.perform(post("/api/inventory/items/stock:batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(4))
+                .andExpect(jsonPath("$.results[0].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[0].itemId").value(item.getId() + 1000))
+                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[1].sku").value("BATCH-MISSING"))
+                .andExpect(jsonPath("$.results[2].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[2].message").value("Either itemId or sku is required"))
+                .andExpect(jsonPath("$.results[3].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[3].itemId").value(item.getId()))
+                .andExpect(jsonPath("$.results[3].message").value("Quantity cannot be negative"))
+                .andExpect(jsonPath("$.results[3].newQuantity").value(nullValue()))
+                .andExpect(jsonPath("$.results[4].status").value("UPDATED"))
+                .andExpect(jsonPath("$.results[4].oldQuantity").value(10))
+                .andExpect(jsonPath("$.results[4].newQuantity").value(7));
+
+        assertThat(inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity()).isEqualTo(7);
+        assertThat(stockLogs(item)).extracting(InventoryChangeLog::getChangeType)
+                .containsExactly(InventoryChangeLog.ChangeType.SOLD);
+    }
+
+    @Test
+    void linesForTheSameItemAreAppliedInRequestOrder() throws Exception {
+        InventoryItem item = inventoryService.createItem(itemRequest("BATCH-2", 10));
+        String body = "{\"updates\":["
+                + "{\"itemId\":" + item.getId() + ",\"newQuantity\":4,\"changeType\":\"SOLD\"},"
+                + "{\"sku\":\"BATCH-2\",\"newQuantity\":20,\"changeType\":\"STOCK_IN\"},"
+                + "{\"itemId\":" + item.getId() + ",\"newQuantity\":18,\"changeType\":\"SOLD\"}]}";
+
+        mockMvc.perform(post("/api/inventory/items/stock:batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(3))
+                .andExpect(jsonPath("$.results[0].oldQuantity").value(10))
+                .andExpect(jsonPath("$.results[1].oldQuantity").value(4))
+                .andExpect(jsonPath("$.results[2].oldQuantity").value(20))
+                .andExpect(jsonPath("$.results[2].newQuantity").value(18));
+
+        // One log per line, and one version bump for the item
+        InventoryItem updated = inventoryItemRepository.findById(item.getId()).orElseThrow();
+        assertThat(updated.getQuantity()).isEqualTo(18);
+        assertThat(updated.getVersion()).isEqualTo(item.getVersion() + 1);
+        assertThat(stockLogs(item)).extracting(InventoryChangeLog::getOldQuantity, InventoryChangeLog::getNewQuantity)
+                .containsExactly(tuple(10, 4), tuple(4, 20), tuple(20, 18));
+    }
+
+    @Test
+    void aBatchThatLosesARaceIsRetriedAsAWhole() throws Exception {
+        InventoryItem first = inventoryService.createItem(itemRequest("BATCH-3", 10));
+        InventoryItem second = inventoryService.createItem(itemRequest("BATCH-4", 10));
+        InventoryService target = AopTestUtils.getTargetObject(inventoryService);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        AtomicBoolean interleaved = new AtomicBoolean();
+        double retriedBefore = conflicts("retried");
+
+        // Another request commits a stock update after the first attempt loaded the items
+        InventoryItemRepository interleaving = (InventoryItemRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{InventoryItemRepository.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(inventoryItemRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().equals("findByIdInAndIsActiveTrue") && interleaved.compareAndSet(false, true)) {
+                        writer.submit(() -> {
+                            SecurityContextHolder.getContext().setAuthentication(authentication);
+                            StockUpdateRequest request = new StockUpdateRequest();
+                            request.setNewQuantity(3);
+                            request.setChangeType(InventoryChangeLog.ChangeType.SOLD);
+                            return inventoryService.updateStock(first.getId(), request);
+                        }).get();
+                    }
+                    return result;
+                });
+        ReflectionTestUtils.setField(target, "inventoryItemRepository", interleaving);
+        try {
+            String body = "{\"updates\":["
+                    + "{\"itemId\":" + first.getId() + ",\"newQuantity\":1,\"changeType\":\"SOLD\"},"
+                    + "{\"itemId\":" + second.getId() + ",\"newQuantity\":8,\"changeType\":\"SOLD\"}]}";
+            mockMvc.perform(post("/api/inventory/items/stock:batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated").value(2))
+                    // The retry read the concurrent write
+                    .andExpect(jsonPath("$.results[0].oldQuantity").value(3))
+                    .andExpect(jsonPath("$.results[1].oldQuantity").value(10));
+        } finally {
+            ReflectionTestUtils.setField(target, "inventoryItemRepository", inventoryItemRepository);
+            writer.shutdown();
+        }
+
+        assertThat(interleaved).isTrue();
+        assertThat(conflicts("retried") - retriedBefore).isEqualTo(1);
+        assertThat(inventoryItemRepository.findById(first.getId()).orElseThrow().getQuantity()).isEqualTo(1);
+        assertThat(inventoryItemRepository.findById(second.getId()).orElseThrow().getQuantity()).isEqualTo(8);
+        // The rolled back attempt left no logs behind
+        assertThat(stockLogs(first)).extracting(InventoryChangeLog::getOldQuantity).containsExactly(10, 3);
+        assertThat(stockLogs(second)).extracting(InventoryChangeLog::getOldQuantity).containsExactly(10);
+    }
+
+    private List<InventoryChangeLog> stockLogs(InventoryItem item) {
+        return changeLogRepository.findAll().stream()
+                .filter(log -> log.getInventoryItem().getId().equals(item.getId())
+                        && log.getChangeType() != InventoryChangeLog.ChangeType.INITIAL_STOCK)
+                .sorted(Comparator.comparing(InventoryChangeLog::getId))
+                .toList();
+    }
+
+    private double conflicts(String outcome) {
+        return meterRegistry.find("inventory.write.conflicts").tag("operation", "updateStockBatch")
+                .tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,91 @@
+package com.kushyanth.inventary.controller;
+
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.dto.ChangeLogEntry;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.repository.InventoryChangeLogJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the change log listings against N+1 queries: each page must take the same,
+ * bounded number of SQL statements whatever its size. Counts come from the SQL count
+ * in the Server-Timing header.
+ */
+@WithMockUser(username = "admin", roles = "ADMIN")
+class ChangeLogStatementCountTests extends IntegrationTestSupport {
+
+    private static final Pattern SQL_STATEMENTS = Pattern.compile("desc=\"SQL \\((\\d+)\\)\"");
+
+    private Long itemId;
+
+    @Autowired
+    private InventoryChangeLogJdbcRepository changeLogJdbcRepository;
+
+    @BeforeEach
+    void createHistory() {
+        List<ChangeLogEntry> changeLogs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            InventoryItem item = new InventoryItem();
+            item.setName("Counted item " + i);
+            item.setSku("COUNT-" + i);
+            item.setQuantity(100);
+            item.setReorderThreshold(10);
+            item.setUnitPrice(new BigDecimal("2.50"));
+            item = saveItems(List.of(item)).get(0);
+            itemId = item.getId();
+
+            for (int change = 0; change < 30; change++) {
+                changeLogs.add(new ChangeLogEntry(item.getId(), 100 - change, 99 - change,
+                        InventoryChangeLog.ChangeType.SOLD, null, "admin"));
+            }
+        }
+        changeLogJdbcRepository.batchInsert(changeLogs);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/api/inventory/changes, 2",
+            "/api/inventory/items/{id}/history, 3",
+            "/api/dashboard/recent-activity, 2",
+            "/api/inventory/changes/scroll, 2",
+            "/api/inventory/items/{id}/history/scroll, 2"
+    })
+    void pageTakesBoundedStatementsWhateverItsSize(String path, int maxStatements) throws Exception {
+        String url = path.replace("{id}", itemId.toString());
+
+        int smallPage = sqlStatements(url + "?size=5");
+        int largePage = sqlStatements(url + "?size=25");
+
+        assertThat(smallPage).isLessThanOrEqualTo(maxStatements);
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    private int sqlStatements(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].itemSku").exists())
+                .andReturn();
+
+        String serverTiming = result.getResponse().getHeader("Server-Timing");
+        assertThat(serverTiming).isNotNull();
+        Matcher matcher = SQL_STATEMENTS.matcher(serverTiming);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+}
@@ -0,0 +1,127 @@
+package com.kushyanth.inventary.controller;
+
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.dto.ChangeLogEntry;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.repository.InventoryChangeLogJdbcRepository;
+import com.kushyanth.inventary.service.DataFormat;
+import com.kushyanth.inventary.service.ExportService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Server timing is on in the test profile, so the tests also cover exports bypassing its response buffer
+@WithMockUser(username = "admin", roles = "ADMIN")
+class ExportTests extends IntegrationTestSupport {
+
+    private static final int ITEMS = 1200;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private InventoryChangeLogJdbcRepository changeLogJdbcRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void createItems() {
+        List<InventoryItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            InventoryItem item = new InventoryItem();
+            item.setName(i == 0 ? "Bolts, \"heavy\" duty" : "Export item " + i);
+            item.setSku("EXPORT-" + i);
+            item.setQuantity(i % 4 == 0 ? 2 : 100);
+            item.setReorderThreshold(10);
+            item.setUnitPrice(new BigDecimal("1.50"));
+            items.add(item);
+        }
+        items = saveItems(items);
+
+        List<ChangeLogEntry> changeLogs = new ArrayList<>();
+        for (InventoryItem item : items.subList(0, 100)) {
+            changeLogs.add(new ChangeLogEntry(item.getId(), 100, 90, InventoryChangeLog.ChangeType.SOLD,
+                    "Export test", "admin"));
+        }
+        changeLogJdbcRepository.batchInsert(changeLogs);
+    }
+
+    @Test
+    void itemsAreExportedAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/export/items"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"items.csv\""))
+                .andExpect(header().doesNotExist("Server-Timing"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\r\n");
+        assertThat(lines).hasSize(ITEMS + 1);
+        assertThat(lines[0]).startsWith("id,sku,name,");
+        assertThat(lines[1]).contains(",EXPORT-0,\"Bolts, \"\"heavy\"\" duty\",");
+    }
+
+    @Test
+    void lowStockItemsAreExportedAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/export/items/low-stock").param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(ITEMS / 4);
+        assertThat(lines).allMatch(line -> line.startsWith("{") && line.contains("\"lowStock\":true"));
+    }
+
+    @Test
+    void changeLogsAreExportedForTheDateRange() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/export/changes")
+                        .param("startDate", "2000-01-01T00:00:00")
+                        .param("endDate", "2100-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\r\n");
+        assertThat(lines).hasSize(101);
+        assertThat(lines[1]).contains(",EXPORT-0,").contains(",SOLD,Export test,admin,");
+
+        mockMvc.perform(get("/api/export/changes")
+                        .param("startDate", "2100-01-01T00:00:00")
+                        .param("endDate", "2000-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/export/items").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportedItemsDoNotStayInThePersistenceContext() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                assertThat(exportService.exportItems(DataFormat.NDJSON, out)).isEqualTo(ITEMS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        });
+    }
+}
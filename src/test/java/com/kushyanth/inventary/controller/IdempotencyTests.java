@@ -0,0 +1,129 @@
+package com.kushyanth.inventary.controller;
+
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.repository.InventoryChangeLogRepository;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import com.kushyanth.inventary.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WithMockUser(username = "admin", roles = "ADMIN")
+class IdempotencyTests extends IntegrationTestSupport {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryChangeLogRepository changeLogRepository;
+
+    @Test
+    void repeatedStockUpdateIsReplayedWithoutWriting() throws Exception {
+        InventoryItem item = inventoryService.createItem(itemRequest("IDEMPOTENT-1", 10));
+        String body = "{\"newQuantity\":25,\"changeType\":\"ADJUSTMENT\"}";
+
+        MvcResult first = mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId())
+                        .header("Idempotency-Key", "scan-1").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+        // Another scan moves the stock on; the retried request must not set it back to 25
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"newQuantity\":30,\"changeType\":\"ADJUSTMENT\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult replayed = mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId())
+                        .header("Idempotency-Key", "scan-1").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("ETag", first.getResponse().getHeader("ETag")))
+                .andReturn();
+        assertThat(replayed.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity()).isEqualTo(30);
+        assertThat(adjustments(item)).hasSize(2);
+
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId())
+                        .header("Idempotency-Key", "scan-1").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newQuantity\":26,\"changeType\":\"ADJUSTMENT\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key was already used for a different request"));
+        // The same body against another version is another request
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId()).header("If-Match", "\"0\"")
+                        .header("Idempotency-Key", "scan-1").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isUnprocessableEntity());
+        // Keys belong to the user that sent them
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId()).with(user("manager").roles("ADMIN"))
+                        .header("Idempotency-Key", "scan-1").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        InventoryItem item = inventoryService.createItem(itemRequest("IDEMPOTENT-2", 10));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<MvcResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> mockMvc.perform(patch("/api/inventory/items/{id}/stock", item.getId())
+                            .with(user("admin").roles("ADMIN"))
+                            .header("Idempotency-Key", "scan-2").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"delta\":-1,\"changeType\":\"SOLD\"}"))
+                    .andReturn()));
+        }
+        List<String> bodies = new ArrayList<>();
+        for (Future<MvcResult> future : futures) {
+            MvcResult result = future.get();
+            assertThat(result.getResponse().getStatus()).isEqualTo(200);
+            bodies.add(result.getResponse().getContentAsString());
+        }
+        executor.shutdown();
+
+        assertThat(bodies).containsOnly(bodies.get(0));
+        assertThat(inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity()).isEqualTo(9);
+        assertThat(changeLogRepository.findAll()).filteredOn(log -> log.getInventoryItem().getId().equals(item.getId())
+                && log.getChangeType() == InventoryChangeLog.ChangeType.SOLD).hasSize(1);
+    }
+
+    @Test
+    void invalidKeyIsRejectedWithAReason() throws Exception {
+        InventoryItem item = inventoryService.createItem(itemRequest("IDEMPOTENT-3", 10));
+
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId())
+                        .header("Idempotency-Key", "k".repeat(101)).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newQuantity\":25,\"changeType\":\"ADJUSTMENT\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Idempotency-Key must be 1 to 100 characters"))
+                .andExpect(jsonPath("$.path").value("/api/inventory/items/" + item.getId() + "/stock"));
+        assertThat(inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity()).isEqualTo(10);
+    }
+
+    private List<InventoryChangeLog> adjustments(InventoryItem item) {
+        return changeLogRepository.findAll().stream()
+                .filter(log -> log.getInventoryItem().getId().equals(item.getId())
+                        && log.getChangeType() == InventoryChangeLog.ChangeType.ADJUSTMENT)
+                .toList();
+    }
+}
@@ -0,0 +1,181 @@
+package com.kushyanth.inventary.controller;
+
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.dto.StockUpdateRequest;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.repository.InventoryChangeLogRepository;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import com.kushyanth.inventary.service.InventoryService;
+import com.kushyanth.inventary.service.ItemImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WithMockUser(username = "admin", roles = "ADMIN")
+class ItemImportTests extends IntegrationTestSupport {
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Test
+    void csvRowsAreInsertedWithInitialStockLogs() throws Exception {
+        String csv = "sku,name,quantity,reorder_threshold,unit_price,description\r\n" +
+                IntStream.range(0, 20)
+                        .mapToObj(i -> "CSV-" + i + ",CSV item " + i + "," + (i < 5 ? 1 : 50) + ",10,2.50,\"Line one\nline two\"")
+                        .collect(Collectors.joining("\r\n"));
+
+        mockMvc.perform(post("/api/inventory/items/import").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(20))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        InventoryItem item = inventoryItemRepository.findBySku("CSV-3").orElseThrow();
+        assertThat(item.getDescription()).isEqualTo("Line one\nline two");
+        assertThat(item.getCreatedBy()).isEqualTo("admin");
+        assertThat(inventoryItemRepository.findLowStockItems()).extracting(InventoryItem::getSku)
+                .contains("CSV-0", "CSV-4").doesNotContain("CSV-5");
+        assertThat(changeLogRepository.findAll()).anyMatch(log -> log.getInventoryItem().getId().equals(item.getId())
+                && log.getChangeType() == InventoryChangeLog.ChangeType.INITIAL_STOCK);
+    }
+
+    @Test
+    void invalidAndDuplicateRowsAreReportedByLine() throws Exception {
+        String csv = "sku,name,quantity,reorder_threshold,unit_price\n" +
+                "ERR-1,Valid,5,1,1.00\n" +
+                "ERR-2,,5,1,1.00\n" +
+                "ERR-3,Bad quantity,many,1,1.00\n" +
+                "ERR-1,Duplicate,5,1,1.00\n";
+
+        mockMvc.perform(post("/api/inventory/items/import").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("name must not be blank"))
+                .andExpect(jsonPath("$.errors[1].message").value("Invalid quantity: many"))
+                .andExpect(jsonPath("$.errors[2].sku").value("ERR-1"));
+
+        mockMvc.perform(post("/api/inventory/items/import").content("name,quantity\nNo sku,1\n"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/inventory/items/import").param("format", "xml").content(""))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ndjsonUpsertUpdatesExistingItems() throws Exception {
+        String ndjson = "{\"sku\":\"JSON-1\",\"name\":\"First\",\"quantity\":10,\"reorderThreshold\":5,\"unitPrice\":1.00}\n" +
+                "\n" +
+                "{\"sku\":\"JSON-2\",\"name\":\"Second\",\"quantity\":10,\"reorderThreshold\":5,\"unitPrice\":1.00}\n" +
+                "{not json}\n";
+        mockMvc.perform(post("/api/inventory/items/import").param("format", "ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(4));
+
+        String update = "{\"sku\":\"JSON-1\",\"name\":\"First renamed\",\"quantity\":3,\"reorderThreshold\":5,\"unitPrice\":1.00}\n" +
+                "{\"sku\":\"JSON-3\",\"name\":\"Third\",\"quantity\":10,\"reorderThreshold\":5,\"unitPrice\":1.00}\n";
+        mockMvc.perform(post("/api/inventory/items/import").param("format", "ndjson").param("upsert", "true")
+                        .content(update))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.updated").value(1));
+
+        InventoryItem item = inventoryItemRepository.findBySku("JSON-1").orElseThrow();
+        assertThat(item.getName()).isEqualTo("First renamed");
+        assertThat(item.getQuantity()).isEqualTo(3);
+        assertThat(inventoryItemRepository.findLowStockItems()).extracting(InventoryItem::getSku).contains("JSON-1");
+        assertThat(changeLogRepository.findAll()).anyMatch(log -> log.getInventoryItem().getId().equals(item.getId())
+                && log.getChangeType() == InventoryChangeLog.ChangeType.ADJUSTMENT
+                && log.getOldQuantity() == 10 && log.getNewQuantity() == 3);
+    }
+
+    @Test
+    void upsertKeepsStockWritesThatRaceWithIt() throws Exception {
+        InventoryItem item = inventoryService.createItem(itemRequest("RACE-1", 10));
+        ItemImportService target = AopTestUtils.getTargetObject(itemImportService);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        List<Future<InventoryItem>> stockWrites = new ArrayList<>();
+
+        // A stock update arrives after the import read the row and before it writes it back
+        InventoryItemRepository interleaving = (InventoryItemRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{InventoryItemRepository.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(inventoryItemRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().equals("findActiveSnapshotsBySkuInForUpdate")) {
+                        stockWrites.add(writer.submit(() -> {
+                            SecurityContextHolder.getContext().setAuthentication(authentication);
+                            StockUpdateRequest request = new StockUpdateRequest();
+                            request.setNewQuantity(3);
+                            request.setChangeType(InventoryChangeLog.ChangeType.SOLD);
+                            return inventoryService.updateStock(item.getId(), request);
+                        }));
+                        // Long enough for the update to commit unless it waits for the import
+                        Thread.sleep(200);
+                    }
+                    return result;
+                });
+        ReflectionTestUtils.setField(target, "inventoryItemRepository", interleaving);
+        try {
+            mockMvc.perform(post("/api/inventory/items/import").param("upsert", "true")
+                            .content("sku,name,quantity,reorder_threshold,unit_price\nRACE-1,Raced,50,3,1.00\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated").value(1));
+        } finally {
+            ReflectionTestUtils.setField(target, "inventoryItemRepository", inventoryItemRepository);
+        }
+        assertThat(stockWrites).hasSize(1);
+        stockWrites.get(0).get();
+        writer.shutdown();
+
+        // The stock update ran on top of the import, and each log saw the write before it
+        InventoryItem updated = inventoryItemRepository.findById(item.getId()).orElseThrow();
+        assertThat(updated.getName()).isEqualTo("Raced");
+        assertThat(updated.getQuantity()).isEqualTo(3);
+        assertThat(updated.getVersion()).isEqualTo(2);
+        assertThat(changeLogRepository.findAll().stream()
+                .filter(log -> log.getInventoryItem().getId().equals(item.getId()))
+                .sorted(Comparator.comparing(InventoryChangeLog::getId)))
+                .extracting(InventoryChangeLog::getOldQuantity, InventoryChangeLog::getNewQuantity)
+                .containsExactly(tuple(0, 10), tuple(10, 50), tuple(50, 3));
+        mockMvc.perform(get("/api/inventory/items/{id}", item.getId()))
+                .andExpect(header().string("ETag", "\"2\""));
+    }
+}
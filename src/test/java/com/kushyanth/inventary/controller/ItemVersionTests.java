@@ -0,0 +1,119 @@
+package com.kushyanth.inventary.controller;
+
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.dto.StockUpdateRequest;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.repository.InventoryChangeLogRepository;
+import com.kushyanth.inventary.service.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WithMockUser(username = "admin", roles = "ADMIN")
+class ItemVersionTests extends IntegrationTestSupport {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void writesWithAStaleIfMatchAreRejected() throws Exception {
+        InventoryItem item = inventoryService.createItem(itemRequest("VERSION-1", 10));
+        double updateItemRejected = rejectedConflicts("updateItem");
+        double updateStockRejected = rejectedConflicts("updateStock");
+        String body = "{\"name\":\"Renamed\",\"sku\":\"VERSION-1\",\"quantity\":10,\"reorderThreshold\":2,\"unitPrice\":1.00}";
+
+        mockMvc.perform(get("/api/inventory/items/{id}", item.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+        mockMvc.perform(get("/api/inventory/items/{id}", item.getId()).header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/inventory/items/{id}", item.getId()).header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+        mockMvc.perform(put("/api/inventory/items/{id}", item.getId()).header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId()).header("If-Match", "W/\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newQuantity\":5,\"changeType\":\"ADJUSTMENT\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId()).header("If-Match", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newQuantity\":5,\"changeType\":\"ADJUSTMENT\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId()).header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newQuantity\":5,\"changeType\":\"ADJUSTMENT\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+
+        // Only the two 412s count as rejected conflicts; the malformed If-Match never reached the write
+        assertThat(rejectedConflicts("updateItem") - updateItemRejected).isEqualTo(1);
+        assertThat(rejectedConflicts("updateStock") - updateStockRejected).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentStockUpdatesAreRetriedInsteadOfLost() throws Exception {
+        InventoryItem item = inventoryService.createItem(itemRequest("VERSION-2", 10));
+        double rejectedBefore = rejectedConflicts("updateStock");
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i <= 80; i++) {
+            int quantity = 1000 + i;
+            futures.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(authentication.getName(), null,
+                                authentication.getAuthorities()));
+                StockUpdateRequest request = new StockUpdateRequest();
+                request.setNewQuantity(quantity);
+                request.setChangeType(InventoryChangeLog.ChangeType.ADJUSTMENT);
+                return inventoryService.updateStock(item.getId(), request);
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Every update saw the one committed before it, so no two log the same old quantity
+        List<InventoryChangeLog> logs = changeLogRepository.findAll().stream()
+                .filter(log -> log.getInventoryItem().getId().equals(item.getId())
+                        && log.getChangeType() == InventoryChangeLog.ChangeType.ADJUSTMENT)
+                .toList();
+        assertThat(logs).hasSize(80);
+        assertThat(logs).extracting(InventoryChangeLog::getOldQuantity).doesNotHaveDuplicates();
+        assertThat(rejectedConflicts("updateStock")).isEqualTo(rejectedBefore);
+    }
+
+    private double rejectedConflicts(String operation) {
+        return meterRegistry.find("inventory.write.conflicts").tag("operation", operation)
+                .tag("outcome", "rejected").counter().count();
+    }
+}
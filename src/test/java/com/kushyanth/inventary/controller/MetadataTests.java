@@ -0,0 +1,66 @@
+package com.kushyanth.inventary.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.kushyanth.inventary.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WithMockUser(username = "admin", roles = "ADMIN")
+class MetadataTests extends IntegrationTestSupport {
+
+    @Test
+    void facetsFollowItemWritesAndRevalidateWithETags() throws Exception {
+        long first = createItem("FACET-1", "Tools", "Bay 1");
+        long second = createItem("FACET-2", "Tools", "Bay 2");
+
+        String eTag = mockMvc.perform(get("/api/inventory/metadata/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value("Tools"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/inventory/metadata/categories").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // Tools is still used by the second item, so it stays next to the new category
+        mockMvc.perform(put("/api/inventory/items/{id}", first).contentType(MediaType.APPLICATION_JSON)
+                        .content(itemJson("FACET-1", "Hardware", "Bay 1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/inventory/metadata/categories"))
+                .andExpect(jsonPath("$[0]").value("Hardware"))
+                .andExpect(jsonPath("$[1]").value("Tools"));
+
+        mockMvc.perform(delete("/api/inventory/items/{id}", second))
+                .andExpect(status().is2xxSuccessful());
+        String changed = mockMvc.perform(get("/api/inventory/metadata/categories").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0]").value("Hardware"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(changed).isNotEqualTo(eTag);
+        mockMvc.perform(get("/api/inventory/metadata/locations"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0]").value("Bay 1"));
+    }
+
+    private long createItem(String sku, String category, String location) throws Exception {
+        String response = mockMvc.perform(post("/api/inventory/items").contentType(MediaType.APPLICATION_JSON)
+                        .content(itemJson(sku, category, location)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(response, "$.id")).longValue();
+    }
+
+    private static String itemJson(String sku, String category, String location) {
+        return "{\"name\":\"Facet item\",\"sku\":\"" + sku + "\",\"quantity\":10,\"reorderThreshold\":2," +
+                "\"unitPrice\":1.00,\"category\":\"" + category + "\",\"location\":\"" + location + "\"}";
+    }
+}
@@ -0,0 +1,69 @@
+package com.kushyanth.inventary.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserRevocationTests extends IntegrationTestSupport {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void roleAndActiveChangesRevokeIssuedTokens() throws Exception {
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"revoked\",\"email\":\"revoked@example.com\"," +
+                                "\"password\":\"secret123\",\"role\":[\"manager\"]}"))
+                .andExpect(status().isOk());
+        long id = userRepository.findByUsername("revoked").orElseThrow().getId();
+
+        String token = signIn();
+        mockMvc.perform(get("/api/inventory/items").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/admin/users/{id}/roles", id).with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"roles\":[\"viewer\"]}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/inventory/items").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        String reissued = signIn();
+        mockMvc.perform(get("/api/inventory/items").header("Authorization", "Bearer " + reissued))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/admin/users/{id}/active", id).with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"active\":false}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/inventory/items").header("Authorization", "Bearer " + reissued))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"revoked\",\"password\":\"secret123\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void onlyAdminsChangeUsers() throws Exception {
+        mockMvc.perform(post("/api/admin/users/{id}/revoke-tokens", 1).with(user("manager").roles("WAREHOUSE_MANAGER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/admin/users/{id}/roles", 1).with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"roles\":[\"owner\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String signIn() throws Exception {
+        String response = mockMvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"revoked\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(response, "$.accessToken");
+    }
+}
@@ -0,0 +1,238 @@
+package com.kushyanth.inventary.perf;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load against a running instance. Each worker picks operations by
+ * weight (item reads, listing, search, stock updates, dashboard hits), with item ids
+ * skewed towards popular items, and records the latency of every request. Workers are
+ * seeded from the driver seed, so the request sequence is the same on every run.
+ * Server errors and failed requests are counted as errors.
+ */
+public class MixedWorkloadDriver {
+
+    private static final String[] SEARCH_TERMS = {
+            "wrench", "steel", "cable", "heavy duty", "sensor", "SKU-0000", "container", "portable lamp", "valve", "xyz"
+    };
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final String token;
+    private final long firstItemId;
+    private final PerfDataGenerator.Zipf itemPopularity;
+    private final long seed;
+    private final List<Operation> operations = new ArrayList<>();
+    private final int totalWeight;
+
+    public MixedWorkloadDriver(String baseUrl, String token, long firstItemId, int itemCount, long seed) {
+        this.baseUrl = baseUrl;
+        this.token = token;
+        this.firstItemId = firstItemId;
+        this.itemPopularity = new PerfDataGenerator.Zipf(itemCount, 0.9);
+        this.seed = seed;
+
+        operations.add(new Operation("GET /items/{id}", 35,
+                random -> get("/api/inventory/items/" + itemId(random))));
+        operations.add(new Operation("GET /items", 10,
+                random -> get("/api/inventory/items?page=" + random.nextInt(50) + "&size=20")));
+        operations.add(new Operation("GET /items/search", 20,
+                random -> get("/api/inventory/items/search?size=20&searchTerm="
+                        + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "%20"))));
+        operations.add(new Operation("PATCH /items/{id}/stock", 15,
+                random -> patch("/api/inventory/items/" + itemId(random) + "/stock", stockDelta(random))));
+        operations.add(new Operation("GET /items/low-stock/paged", 5,
+                random -> get("/api/inventory/items/low-stock/paged?size=20")));
+        operations.add(new Operation("GET /dashboard/stats", 10,
+                random -> get("/api/dashboard/stats")));
+        operations.add(new Operation("GET /dashboard/recent-activity", 5,
+                random -> get("/api/dashboard/recent-activity")));
+        totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    /**
+     * Runs {@code concurrency} workers for the warmup (not recorded) and then for the
+     * measured duration.
+     */
+    public Report run(int concurrency, Duration warmup, Duration duration) throws Exception {
+        runWorkers(concurrency, warmup, seed - 1);
+        long started = System.nanoTime();
+        List<Samples[]> perWorker = runWorkers(concurrency, duration, seed);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (int op = 0; op < operations.size(); op++) {
+            Samples merged = new Samples();
+            for (Samples[] samples : perWorker) {
+                merged.addAll(samples[op]);
+            }
+            results.put(operations.get(op).name(), merged.toResult(elapsedSeconds));
+        }
+        return new Report(concurrency, elapsedSeconds, results);
+    }
+
+    private List<Samples[]> runWorkers(int concurrency, Duration duration, long runSeed) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Samples[]>> futures = new ArrayList<>();
+        try (ExecutorService workers = Executors.newFixedThreadPool(concurrency)) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                SplittableRandom random = new SplittableRandom(runSeed * 31 + worker);
+                futures.add(workers.submit(() -> runWorker(random, deadline)));
+            }
+        }
+
+        List<Samples[]> perWorker = new ArrayList<>();
+        for (Future<Samples[]> future : futures) {
+            perWorker.add(future.get());
+        }
+        return perWorker;
+    }
+
+    private Samples[] runWorker(SplittableRandom random, long deadline) {
+        Samples[] samples = new Samples[operations.size()];
+        Arrays.setAll(samples, i -> new Samples());
+
+        while (System.nanoTime() < deadline) {
+            int op = pick(random);
+            HttpRequest request = operations.get(op).request().build(random);
+            long started = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                // 404s for inactive items and 409s are normal answers; only server errors count
+                ok = response.statusCode() < 500;
+            } catch (Exception e) {
+                ok = false;
+            }
+            samples[op].add(System.nanoTime() - started, ok);
+        }
+        return samples;
+    }
+
+    private int pick(SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (int op = 0; op < operations.size(); op++) {
+            roll -= operations.get(op).weight();
+            if (roll < 0) {
+                return op;
+            }
+        }
+        return operations.size() - 1;
+    }
+
+    private long itemId(SplittableRandom random) {
+        return firstItemId + itemPopularity.next(random);
+    }
+
+    private static String stockDelta(SplittableRandom random) {
+        // Mostly picks, with the occasional receipt
+        boolean receipt = random.nextInt(5) == 0;
+        int delta = receipt ? 10 + random.nextInt(90) : -1 - random.nextInt(5);
+        return "{\"delta\":" + delta + ",\"changeType\":\"" + (receipt ? "STOCK_IN" : "SOLD")
+                + "\",\"floorAtZero\":true}";
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest patch(String path, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private record Operation(String name, int weight, RequestFactory request) {
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest build(SplittableRandom random);
+    }
+
+    // Latencies of one operation, in nanoseconds
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void add(long latencyNanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        Result toResult(double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Result(count, errors, count / elapsedSeconds,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                    count > 0 ? sorted[count - 1] / 1e6 : 0);
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    public record Result(long requests, long errors, double throughput, double p50Ms, double p99Ms, double maxMs) {
+    }
+
+    public record Report(int concurrency, double elapsedSeconds, Map<String, Result> results) {
+
+        @Override
+        public String toString() {
+            StringBuilder table = new StringBuilder();
+            table.append(String.format("Mixed workload, %d workers, %.1f s%n", concurrency, elapsedSeconds));
+            table.append(String.format("%-32s %9s %7s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+            long requests = 0;
+            for (Map.Entry<String, Result> entry : results.entrySet()) {
+                Result result = entry.getValue();
+                requests += result.requests();
+                table.append(String.format("%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                        result.requests(), result.errors(), result.throughput(),
+                        result.p50Ms(), result.p99Ms(), result.maxMs()));
+            }
+            table.append(String.format("%-32s %9d %7s %9.1f%n", "total", requests, "", requests / elapsedSeconds));
+            return table.toString();
+        }
+    }
+}
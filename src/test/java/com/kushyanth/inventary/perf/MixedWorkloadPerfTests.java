@@ -0,0 +1,99 @@
+package com.kushyanth.inventary.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a large embedded H2 database and drives a mixed workload against the running
+ * application, reporting throughput and p50/p99 latency per endpoint. Tagged "perf" and
+ * run with {@code ./gradlew perfTest}; sizes and run length come from -Pperf.* properties.
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:perfdb;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "inventory.changelog.async.enabled=true",
+        "logging.level.com.kushyanth.inventary=WARN",
+        "logging.level.com.kushyanth.inventary.perf=INFO"
+})
+@ActiveProfiles("test")
+@Import(MixedWorkloadPerfTests.Seeding.class)
+class MixedWorkloadPerfTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(MixedWorkloadPerfTests.class);
+
+    private static final long SEED = Long.getLong("perf.seed", 20240601L);
+    private static final int ITEMS = Integer.getInteger("perf.items", 100_000);
+    private static final long CHANGE_LOGS = Long.getLong("perf.changeLogs", 1_000_000L);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        String baseUrl = "http://localhost:" + port;
+        Long firstItemId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM inventory_items", Long.class);
+
+        MixedWorkloadDriver driver = new MixedWorkloadDriver(baseUrl, signIn(baseUrl), firstItemId, ITEMS, SEED);
+        MixedWorkloadDriver.Report report = driver.run(
+                Integer.getInteger("perf.concurrency", 16),
+                Duration.ofSeconds(Long.getLong("perf.warmupSeconds", 10L)),
+                Duration.ofSeconds(Long.getLong("perf.durationSeconds", 30L)));
+
+        logger.info("\n{}", report);
+        Path reportFile = Path.of("build", "reports", "perf", "mixed-workload.json");
+        Files.createDirectories(reportFile.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+
+        report.results().forEach((endpoint, result) -> {
+            assertThat(result.requests()).as(endpoint).isPositive();
+            assertThat(result.errors()).as(endpoint).isLessThanOrEqualTo(result.requests() / 100);
+        });
+    }
+
+    private static String signIn(String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/signin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode body = new ObjectMapper().readTree(response.body());
+        return body.get("accessToken").asText();
+    }
+
+    // Runners finish before ApplicationReadyEvent, so the in-memory indexes load the seeded data
+    @TestConfiguration
+    static class Seeding {
+
+        @Bean
+        ApplicationRunner perfDataSeeder(JdbcTemplate jdbcTemplate) {
+            return args -> new PerfDataGenerator(jdbcTemplate, SEED).generate(ITEMS, CHANGE_LOGS);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.kushyanth.inventary.perf;
+
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds a large, reproducible inventory with plain JDBC batches. The same seed always
+ * produces the same rows. Categories, suppliers and locations follow a Zipf skew (a few
+ * large ones, a long tail of small ones), and change logs spread over the past year with
+ * growing volume, quieter weekends, a midday peak and most activity on a small share of
+ * popular items. Expects empty tables, so the generated item ids are contiguous.
+ */
+public class PerfDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerfDataGenerator.class);
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO inventory_items (name, sku, description, quantity, reorder_threshold, unit_price, " +
+            "category, supplier_name, supplier_email, supplier_phone, location, created_at, updated_at, " +
+            "created_by, updated_by, is_active, low_stock) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CHANGE_LOG_SQL =
+            "INSERT INTO inventory_change_logs (inventory_item_id, old_quantity, new_quantity, quantity_change, " +
+            "change_type, reason, changed_by, change_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] CATEGORIES = {
+            "Electronics", "Hardware", "Office Supplies", "Cleaning", "Safety", "Packaging", "Furniture",
+            "Tools", "Electrical", "Plumbing", "Automotive", "Kitchen", "Medical", "Garden", "Lighting",
+            "Fasteners", "Paint", "Storage", "Networking", "Textiles"
+    };
+
+    private static final String[] ADJECTIVES = {
+            "Steel", "Heavy Duty", "Compact", "Industrial", "Wireless", "Premium", "Standard", "Portable",
+            "Reinforced", "Ergonomic", "Digital", "Galvanized", "Recycled", "Adjustable", "Insulated"
+    };
+
+    private static final String[] NOUNS = {
+            "Wrench", "Drill", "Cable", "Adapter", "Bracket", "Shelf", "Gloves", "Tape", "Switch", "Valve",
+            "Filter", "Bolt", "Hinge", "Sensor", "Router", "Container", "Lamp", "Hose", "Clamp", "Battery"
+    };
+
+    private static final String[] CHANGED_BY = {"admin", "manager", "receiving", "picker-1", "picker-2", "system"};
+
+    private static final int SUPPLIER_COUNT = 500;
+    private static final int LOCATION_COUNT = 60;
+    private static final int HISTORY_DAYS = 365;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long seed;
+
+    public PerfDataGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seed = seed;
+    }
+
+    public void generate(int itemCount, long changeLogCount) {
+        long started = System.nanoTime();
+        int[] quantities = insertItems(itemCount);
+        Long firstItemId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM inventory_items", Long.class);
+        logger.info("Inserted {} items in {} ms", itemCount, (System.nanoTime() - started) / 1_000_000);
+
+        started = System.nanoTime();
+        insertChangeLogs(firstItemId, quantities, changeLogCount);
+        logger.info("Inserted {} change logs in {} ms", changeLogCount, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private int[] insertItems(int itemCount) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Zipf categories = new Zipf(CATEGORIES.length, 1.1);
+        Zipf suppliers = new Zipf(SUPPLIER_COUNT, 1.0);
+        Zipf locations = new Zipf(LOCATION_COUNT, 0.8);
+        LocalDateTime now = LocalDateTime.now();
+
+        int[] quantities = new int[itemCount];
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < itemCount; i++) {
+            String category = CATEGORIES[categories.next(random)];
+            int supplier = suppliers.next(random);
+            int location = locations.next(random);
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                    + " " + (i % 1000);
+            int reorderThreshold = 5 + random.nextInt(46);
+            // About one item in twelve sits below its reorder threshold
+            int quantity = random.nextInt(12) == 0 ? random.nextInt(reorderThreshold) : reorderThreshold + random.nextInt(500);
+            quantities[i] = quantity;
+            LocalDateTime createdAt = now.minusDays(HISTORY_DAYS + random.nextInt(HISTORY_DAYS));
+
+            batch.add(new Object[]{
+                    name,
+                    String.format("SKU-%08d", i + 1),
+                    name + " for " + category.toLowerCase() + " use",
+                    quantity,
+                    reorderThreshold,
+                    BigDecimal.valueOf(100 + random.nextInt(99_900), 2),
+                    category,
+                    "Supplier " + supplier,
+                    "orders@supplier" + supplier + ".example.com",
+                    String.format("+1-555-%04d", supplier),
+                    "Warehouse " + (char) ('A' + location % 6) + "-" + (location / 6 + 1),
+                    Timestamp.valueOf(createdAt),
+                    Timestamp.valueOf(now),
+                    "admin",
+                    "admin",
+                    random.nextInt(50) != 0,
+                    quantity <= reorderThreshold
+            });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, batch);
+        }
+        return quantities;
+    }
+
+    private void insertChangeLogs(long firstItemId, int[] quantities, long changeLogCount) {
+        if (quantities.length == 0) {
+            return;
+        }
+
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        Zipf popularity = new Zipf(quantities.length, 0.9);
+        // Popularity rank to item, so the popular items are scattered over the id range
+        int[] itemByRank = shuffledIndexes(quantities.length, random);
+        LocalDateTime end = LocalDateTime.now();
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long i = 0; i < changeLogCount; i++) {
+            int item = itemByRank[popularity.next(random)];
+            InventoryChangeLog.ChangeType changeType = changeType(random);
+            // Walks each item's history backwards from its current level, so quantities never go negative
+            int newQuantity = quantities[item];
+            int quantityChange = switch (changeType) {
+                case STOCK_IN -> Math.min(newQuantity, 1 + random.nextInt(200));
+                case RETURNED -> Math.min(newQuantity, 1 + random.nextInt(5));
+                case ADJUSTMENT -> Math.max(-newQuantity, random.nextInt(21) - 10);
+                default -> -1 - random.nextInt(10);
+            };
+            int oldQuantity = newQuantity - quantityChange;
+            quantities[item] = oldQuantity;
+
+            batch.add(new Object[]{
+                    firstItemId + item,
+                    oldQuantity,
+                    newQuantity,
+                    quantityChange,
+                    changeType.name(),
+                    changeType == InventoryChangeLog.ChangeType.ADJUSTMENT ? "Cycle count" : null,
+                    CHANGED_BY[random.nextInt(CHANGED_BY.length)],
+                    Timestamp.valueOf(changeDate(end, random))
+            });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_CHANGE_LOG_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CHANGE_LOG_SQL, batch);
+        }
+    }
+
+    private static InventoryChangeLog.ChangeType changeType(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 55) return InventoryChangeLog.ChangeType.SOLD;
+        if (roll < 75) return InventoryChangeLog.ChangeType.STOCK_IN;
+        if (roll < 85) return InventoryChangeLog.ChangeType.STOCK_OUT;
+        if (roll < 92) return InventoryChangeLog.ChangeType.ADJUSTMENT;
+        if (roll < 97) return InventoryChangeLog.ChangeType.RETURNED;
+        if (roll < 99) return InventoryChangeLog.ChangeType.DAMAGED;
+        return InventoryChangeLog.ChangeType.EXPIRED;
+    }
+
+    // Volume grows towards the present, weekends run at a third, activity peaks around 1 pm
+    private static LocalDateTime changeDate(LocalDateTime end, SplittableRandom random) {
+        while (true) {
+            int daysAgo = (int) (HISTORY_DAYS * (1 - Math.sqrt(random.nextDouble())));
+            LocalDateTime day = end.minusDays(daysAgo).toLocalDate().atStartOfDay();
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            if ((dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) && random.nextInt(3) != 0) {
+                continue;
+            }
+
+            double hour = 13 + gaussian(random) * 3.5;
+            if (hour < 0 || hour >= 24) {
+                continue;
+            }
+            LocalDateTime date = day.plusSeconds((long) (hour * 3600));
+            if (date.isAfter(end)) {
+                continue;
+            }
+            return date;
+        }
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private static int[] shuffledIndexes(int size, SplittableRandom random) {
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    /**
+     * Zipf distributed ranks in [0, size), rank 0 being the most frequent. Sampled by
+     * binary search over the cumulative weights.
+     */
+    static final class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int size, double exponent) {
+            cumulative = new double[size];
+            double total = 0;
+            for (int rank = 0; rank < size; rank++) {
+                total += 1 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < size; rank++) {
+                cumulative[rank] /= total;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            double target = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
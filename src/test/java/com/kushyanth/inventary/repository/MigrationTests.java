@@ -0,0 +1,70 @@
+package com.kushyanth.inventary.repository;
+
+import com.kushyanth.inventary.config.SchemaIndexCheck;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application on a database that predates the migrations: the schema as
+ * ddl-auto created it, with data and no Flyway history. It has to be baselined at V1,
+ * receive every later version and pass Hibernate's validation.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MigrationTests {
+
+    private static final String URL = "jdbc:h2:mem:premigration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchemaIndexCheck schemaIndexCheck;
+
+    // Runs before the context starts, so Flyway finds the old schema already in place
+    @DynamicPropertySource
+    static void oldSchema(DynamicPropertyRegistry registry) throws SQLException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "password");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/pre-migration-schema.sql"));
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO inventory_items (name, sku, quantity, reorder_threshold, is_active) " +
+                "VALUES ('Old low item', 'OLD-1', 2, 5, true), ('Old item', 'OLD-2', 50, 5, true)");
+        jdbcTemplate.update("INSERT INTO users (username, email, password, is_active) " +
+                "VALUES ('olduser', 'old@example.com', 'x', true)");
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void oldSchemaIsBaselinedAndMigrated() throws SQLException {
+        List<String> versions = jdbcTemplate.queryForList("SELECT CONCAT(\"version\", ' ', \"type\") " +
+                "FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL ORDER BY \"installed_rank\"",
+                String.class);
+        assertThat(versions).startsWith("1 BASELINE", "2 SQL").contains("7 SQL", "8 SQL", "9 SQL");
+
+        // Rows from before the low_stock column are backfilled once the application is ready
+        assertThat(jdbcTemplate.queryForList("SELECT sku FROM inventory_items WHERE low_stock = true", String.class))
+                .containsExactly("OLD-1");
+        assertThat(jdbcTemplate.queryForObject("SELECT token_version FROM users WHERE username = 'olduser'",
+                Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_dead_letters", Integer.class))
+                .isZero();
+        assertThat(schemaIndexCheck.findMissingIndexes()).isEmpty();
+    }
+}
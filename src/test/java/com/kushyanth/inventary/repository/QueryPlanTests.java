@@ -0,0 +1,254 @@
+package com.kushyanth.inventary.repository;
+
+import com.kushyanth.inventary.config.SchemaIndexCheck;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the queries behind item history, the item filters and date ranges are
+ * planned on the indexes from the migrations. Each case calls the repository method and
+ * explains the statements Hibernate actually sent, captured through datasource-proxy.
+ * Their parameters are inlined before planning, as MySQL Connector/J does by default.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:queryplans;MODE=MySQL;DATABASE_TO_LOWER=TRUE")
+@ActiveProfiles("test")
+class QueryPlanTests {
+
+    private static final LocalDateTime PAGE_BOUNDARY = LocalDateTime.of(2024, 1, 20, 0, 0);
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("changeDate"), Sort.Order.desc("id"));
+
+    private static final String[] CATEGORIES = {"Tools", "Hardware", "Electrical", "Plumbing", "Paint"};
+    private static final String[] SUPPLIERS = {"Acme", "Globex", "Initech", "Umbrella"};
+    private static final String[] LOCATIONS = {"A-1", "A-2", "B-1", "B-2", "C-1", "C-2"};
+    private static final String[] USERS = {"admin", "manager", "clerk1", "clerk2", "clerk3"};
+    private static final String[] CHANGE_TYPES = {"SOLD", "STOCK_IN", "ADJUSTMENT", "RETURNED", "DAMAGED"};
+
+    private static final int ITEMS = 500;
+    private static final int CHANGES_PER_ITEM = 20;
+
+    // Every statement run through the application's data source, with its parameters inlined
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+    private static boolean seeded;
+    private static Long itemId;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SchemaIndexCheck schemaIndexCheck;
+
+    @TestConfiguration
+    static class StatementCapture {
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name(beanName)
+                                .afterQuery((execInfo, queryInfoList) -> queryInfoList.forEach(
+                                        queryInfo -> STATEMENTS.add(inline(queryInfo))))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"Plan item " + i, "PLAN-" + i, 50, 10, CATEGORIES[i % CATEGORIES.length],
+                    SUPPLIERS[i % SUPPLIERS.length], LOCATIONS[i % LOCATIONS.length], i % 10 != 0, i % 7 == 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventory_items (name, sku, quantity, reorder_threshold, category, " +
+                "supplier_name, location, is_active, low_stock) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", items);
+
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM inventory_items", Long.class);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> changes = new ArrayList<>();
+        for (int change = 0; change < CHANGES_PER_ITEM; change++) {
+            for (int i = 0; i < itemIds.size(); i++) {
+                int n = change * itemIds.size() + i;
+                changes.add(new Object[]{itemIds.get(i), 50, 49, -1, CHANGE_TYPES[n % CHANGE_TYPES.length],
+                        USERS[n % USERS.length], Timestamp.valueOf(start.plusMinutes(n * 7L))});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventory_change_logs (inventory_item_id, old_quantity, new_quantity, " +
+                "quantity_change, change_type, changed_by, change_date) VALUES (?, ?, ?, ?, ?, ?, ?)", changes);
+
+        // On MySQL idx_change_logs_item_date backs the item foreign key (V3). H2 insists on an
+        // index of its own for the constraint, so it is dropped to plan against the same indexes.
+        jdbcTemplate.execute("ALTER TABLE inventory_change_logs DROP CONSTRAINT FKt9gjulo1odlx1bbuutuimtuj9");
+
+        // Selectivity statistics for the cost-based choice between indexes
+        jdbcTemplate.execute("ANALYZE");
+        itemId = itemIds.get(42);
+        seeded = true;
+    }
+
+    static Stream<Arguments> indexedQueries() {
+        return Stream.of(
+                Arguments.of("item history page", (Consumer<QueryPlanTests>) test ->
+                                test.changeLogRepository.findViewsByItemId(itemId, PageRequest.of(0, 20)),
+                        "idx_change_logs_item_date"),
+                Arguments.of("item history keyset page", (Consumer<QueryPlanTests>) test ->
+                                test.changeLogRepository.findByInventoryItem(
+                                        test.inventoryItemRepository.getReferenceById(itemId),
+                                        ScrollPosition.forward(Map.of("changeDate", PAGE_BOUNDARY, "id", 5000L)),
+                                        NEWEST_FIRST, Limit.of(21)),
+                        "idx_change_logs_item_date"),
+                Arguments.of("all changes keyset page", (Consumer<QueryPlanTests>) test ->
+                                test.changeLogRepository.findAllBy(
+                                        ScrollPosition.forward(Map.of("changeDate", PAGE_BOUNDARY, "id", 5000L)),
+                                        NEWEST_FIRST, Limit.of(21)),
+                        "idx_change_logs_date"),
+                Arguments.of("date range", (Consumer<QueryPlanTests>) test ->
+                                test.transactionTemplate.executeWithoutResult(status -> {
+                                    try (Stream<?> views = test.changeLogRepository.streamViewsByDateRange(
+                                            LocalDateTime.of(2024, 1, 10, 0, 0), LocalDateTime.of(2024, 1, 11, 0, 0))) {
+                                        views.count();
+                                    }
+                                }),
+                        "idx_change_logs_date"),
+                Arguments.of("changes by user", (Consumer<QueryPlanTests>) test ->
+                                test.changeLogRepository.findByChangedBy("clerk2", PageRequest.of(0, 20)),
+                        "idx_change_logs_changed_by_date"),
+                Arguments.of("changes by type", (Consumer<QueryPlanTests>) test ->
+                                test.changeLogRepository.findByChangeType(InventoryChangeLog.ChangeType.DAMAGED,
+                                        PageRequest.of(0, 20)),
+                        "idx_change_logs_type_date"),
+                Arguments.of("filter by category", (Consumer<QueryPlanTests>) test ->
+                                test.inventoryItemRepository.findByFilters("Tools", null, null, PageRequest.of(0, 20)),
+                        "idx_inventory_items_active_category"),
+                Arguments.of("filter by supplier", (Consumer<QueryPlanTests>) test ->
+                                test.inventoryItemRepository.findByFilters(null, "Globex", null, PageRequest.of(0, 20)),
+                        "idx_inventory_items_active_supplier"),
+                Arguments.of("filter by location", (Consumer<QueryPlanTests>) test ->
+                                test.inventoryItemRepository.findByFilters(null, null, "B-2", PageRequest.of(0, 20)),
+                        "idx_inventory_items_active_location"),
+                Arguments.of("low stock items", (Consumer<QueryPlanTests>) test ->
+                                test.inventoryItemRepository.findLowStockItems(),
+                        "idx_inventory_items_active_low_stock")
+        );
+    }
+
+    // Page queries are checked together with their count query
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexedQueries")
+    void queryUsesIndex(String description, Consumer<QueryPlanTests> query, String expectedIndex) {
+        STATEMENTS.clear();
+        query.accept(this);
+        List<String> selects = List.copyOf(STATEMENTS).stream()
+                .filter(sql -> sql.regionMatches(true, 0, "select", 0, 6))
+                .toList();
+        assertThat(selects).as(description).isNotEmpty();
+
+        for (String sql : selects) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+            assertThat(plan).as(description + ": " + sql).containsPattern("/\\* public\\." + expectedIndex + "[: ]");
+            assertThat(plan).as(description + ": " + sql).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    @Test
+    void startupCheckReportsDroppedIndex() throws Exception {
+        assertThat(schemaIndexCheck.findMissingIndexes()).isEmpty();
+
+        jdbcTemplate.execute("DROP INDEX idx_change_logs_changed_by_date");
+        try {
+            assertThat(schemaIndexCheck.findMissingIndexes()).containsExactly("idx_change_logs_changed_by_date");
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_change_logs_changed_by_date " +
+                    "ON inventory_change_logs (changed_by, change_date)");
+        }
+    }
+
+    private static String inline(QueryInfo queryInfo) {
+        String sql = queryInfo.getQuery();
+        if (queryInfo.getParametersList().isEmpty()) {
+            return sql;
+        }
+        List<ParameterSetOperation> parameters = new ArrayList<>(queryInfo.getParametersList().get(0));
+        parameters.sort(Comparator.comparingInt(parameter -> (Integer) parameter.getArgs()[0]));
+
+        StringBuilder inlined = new StringBuilder();
+        int next = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?' && next < parameters.size()) {
+                inlined.append(literal(parameters.get(next++)));
+            } else {
+                inlined.append(c);
+            }
+        }
+        return inlined.toString();
+    }
+
+    private static String literal(ParameterSetOperation parameter) {
+        if (parameter.getMethod().getName().equals("setNull")) {
+            return "NULL";
+        }
+        Object value = parameter.getArgs()[1];
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof Temporal || value instanceof java.util.Date) {
+            return "TIMESTAMP '" + value.toString().replace('T', ' ') + "'";
+        }
+        return "'" + value.toString().replace("'", "''") + "'";
+    }
+}
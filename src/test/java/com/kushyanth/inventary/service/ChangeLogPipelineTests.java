@@ -0,0 +1,152 @@
+package com.kushyanth.inventary.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.kushyanth.inventary.dto.ChangeLogEntry;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.repository.InventoryChangeLogJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+// The tests run with synchronous change logs, so the pipeline and its journal are exercised here on their own
+class ChangeLogPipelineTests {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void queuedEntriesAreInsertedInOrderInBatches() throws Exception {
+        RecordingRepository repository = new RecordingRepository();
+        ChangeLogPipeline pipeline = pipeline(repository, 100, null);
+        pipeline.start();
+
+        for (int i = 1; i <= 25; i++) {
+            pipeline.append(entry(i));
+        }
+        pipeline.shutdown();
+
+        assertThat(repository.batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+        assertThat(repository.itemIds()).containsExactlyElementsOf(LongStream.rangeClosed(1, 25).boxed().toList());
+        assertThat(repository.threads).containsOnly("changelog-flusher");
+    }
+
+    @Test
+    void entriesThatDoNotFitAreInsertedByTheCallingThread() throws Exception {
+        RecordingRepository repository = new RecordingRepository();
+        ChangeLogPipeline pipeline = pipeline(repository, 2, null);
+
+        // The flusher is not running, so the queue stays full
+        pipeline.appendAll(entries(1, 5));
+        assertThat(repository.itemIds()).containsExactly(3L, 4L, 5L);
+        assertThat(repository.threads).containsOnly(Thread.currentThread().getName());
+
+        pipeline.start();
+        pipeline.shutdown();
+        assertThat(repository.itemIds()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void journalReplaysOnlyEntriesThatWereNeverInserted() throws Exception {
+        Path journal = tempDir.resolve("changelog.journal");
+        RecordingRepository crashed = new RecordingRepository();
+        ChangeLogPipeline first = pipeline(crashed, 2, journal);
+
+        // 3 to 5 overflow and are inserted first, the checkpoint still has to wait for 1 and 2
+        first.appendAll(entries(1, 5));
+        assertThat(checkpoint(journal)).doesNotExist();
+        first.start();
+        await().atMost(Duration.ofSeconds(5)).until(() -> crashed.itemIds().size() == 5);
+        assertThat(Files.readString(checkpoint(journal))).isEqualTo("5");
+
+        // The database goes away and the process stops with 6 and 7 only in the journal
+        crashed.failing = true;
+        first.appendAll(entries(6, 7));
+        Thread.sleep(100);
+        first.shutdown();
+
+        RecordingRepository restarted = new RecordingRepository();
+        ChangeLogPipeline second = pipeline(restarted, 2, journal);
+        second.start();
+        second.shutdown();
+        assertThat(restarted.itemIds()).containsExactly(6L, 7L);
+        assertThat(Files.readString(checkpoint(journal))).isEqualTo("7");
+        assertThat(Files.size(journal)).isZero();
+
+        RecordingRepository again = new RecordingRepository();
+        ChangeLogPipeline third = pipeline(again, 2, journal);
+        third.start();
+        third.append(entry(8));
+        third.shutdown();
+        assertThat(again.itemIds()).containsExactly(8L);
+        assertThat(Files.readString(checkpoint(journal))).isEqualTo("8");
+    }
+
+    private static ChangeLogPipeline pipeline(RecordingRepository repository, int queueCapacity, Path journal)
+            throws Exception {
+        ChangeLogPipeline pipeline = new ChangeLogPipeline();
+        ReflectionTestUtils.setField(pipeline, "changeLogJdbcRepository", repository);
+        ReflectionTestUtils.setField(pipeline, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(pipeline, "objectMapper", OBJECT_MAPPER);
+        ReflectionTestUtils.setField(pipeline, "asyncEnabled", true);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 10);
+        ReflectionTestUtils.setField(pipeline, "flushIntervalMs", 20L);
+        ReflectionTestUtils.setField(pipeline, "journalEnabled", journal != null);
+        ReflectionTestUtils.setField(pipeline, "journalPath", journal != null ? journal.toString() : null);
+        pipeline.init();
+        return pipeline;
+    }
+
+    private static Path checkpoint(Path journal) {
+        return journal.resolveSibling(journal.getFileName() + ".checkpoint");
+    }
+
+    private static List<ChangeLogEntry> entries(int from, int to) {
+        return IntStream.rangeClosed(from, to).mapToObj(ChangeLogPipelineTests::entry).toList();
+    }
+
+    // The item id identifies the entry in the assertions
+    private static ChangeLogEntry entry(long itemId) {
+        return new ChangeLogEntry(itemId, 10, 9, InventoryChangeLog.ChangeType.SOLD, "Pipeline test", "admin");
+    }
+
+    private static class RecordingRepository extends InventoryChangeLogJdbcRepository {
+        private final List<List<ChangeLogEntry>> batches = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean failing;
+
+        @Override
+        public void batchInsert(List<ChangeLogEntry> changeLogs) {
+            if (failing) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            batches.add(List.copyOf(changeLogs));
+            threads.add(Thread.currentThread().getName());
+        }
+
+        List<Long> itemIds() {
+            synchronized (batches) {
+                return batches.stream().flatMap(List::stream).map(ChangeLogEntry::getItemId).toList();
+            }
+        }
+    }
+}
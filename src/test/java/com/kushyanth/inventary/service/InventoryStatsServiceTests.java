@@ -0,0 +1,110 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.dto.DimensionCount;
+import com.kushyanth.inventary.dto.InventoryItemRequest;
+import com.kushyanth.inventary.dto.InventoryTotals;
+import com.kushyanth.inventary.dto.StockUpdateRequest;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WithMockUser(username = "admin", roles = "ADMIN")
+class InventoryStatsServiceTests extends IntegrationTestSupport {
+
+    @Autowired
+    private InventoryStatsService inventoryStatsService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Test
+    void aggregatesFollowCreatesUpdatesAndDeletes() {
+        InventoryItem tools = inventoryService.createItem(itemRequest("STATS-1", "Tools", 50));
+        InventoryItem paint = inventoryService.createItem(itemRequest("STATS-2", "Paint", 1));
+        inventoryService.createItem(itemRequest("STATS-3", "Paint", 30));
+
+        StockUpdateRequest stockUpdate = new StockUpdateRequest();
+        stockUpdate.setNewQuantity(2);
+        stockUpdate.setChangeType(InventoryChangeLog.ChangeType.SOLD);
+        inventoryService.updateStock(tools.getId(), stockUpdate);
+        InventoryItemRequest recategorized = itemRequest("STATS-2", "Hardware", 1);
+        inventoryService.updateItem(paint.getId(), recategorized);
+        inventoryService.deleteItem(tools.getId());
+
+        assertMatchesDatabase(inventoryStatsService.getDashboardStats());
+    }
+
+    @Test
+    void writesDuringReconciliationAreKept() {
+        inventoryService.createItem(itemRequest("STATS-4", "Tools", 5));
+        InventoryStatsService target = AopTestUtils.getTargetObject(inventoryStatsService);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+
+        // Another request commits an item after the totals were read but before the load finishes
+        InventoryItemRepository interleaving = (InventoryItemRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{InventoryItemRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("countByLocation")) {
+                        writer.submit(() -> {
+                            SecurityContextHolder.getContext().setAuthentication(authentication);
+                            return inventoryService.createItem(itemRequest("STATS-5", "Tools", 5));
+                        }).get();
+                    }
+                    try {
+                        return method.invoke(inventoryItemRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        ReflectionTestUtils.setField(target, "inventoryItemRepository", interleaving);
+        try {
+            target.reconcile();
+        } finally {
+            ReflectionTestUtils.setField(target, "inventoryItemRepository", inventoryItemRepository);
+            writer.shutdown();
+        }
+
+        assertMatchesDatabase(inventoryStatsService.getDashboardStats());
+    }
+
+    private void assertMatchesDatabase(Map<String, Object> stats) {
+        InventoryTotals totals = inventoryItemRepository.getActiveTotals();
+        assertThat(stats.get("totalItems")).isEqualTo(totals.getItemCount());
+        assertThat(stats.get("totalQuantity")).isEqualTo(totals.getTotalQuantity());
+        assertThat(stats.get("lowStockCount")).isEqualTo(totals.getLowStockCount());
+        assertThat(stats.get("categoryDistribution")).isEqualTo(toMap(inventoryItemRepository.countByCategory()));
+        assertThat(stats.get("locationDistribution")).isEqualTo(toMap(inventoryItemRepository.countByLocation()));
+    }
+
+    private static Map<String, Long> toMap(List<DimensionCount> rows) {
+        return rows.stream().collect(Collectors.toMap(DimensionCount::getName, DimensionCount::getItemCount));
+    }
+
+    private static InventoryItemRequest itemRequest(String sku, String category, int quantity) {
+        InventoryItemRequest request = itemRequest(sku, quantity);
+        request.setCategory(category);
+        request.setLocation("Aisle " + category);
+        return request;
+    }
+}
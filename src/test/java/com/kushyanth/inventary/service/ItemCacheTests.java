@@ -0,0 +1,145 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemCacheTests {
+
+    private final InventoryItemRepository inventoryItemRepository = mock(InventoryItemRepository.class);
+
+    private ItemCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemCache();
+        ReflectionTestUtils.setField(cache, "inventoryItemRepository", inventoryItemRepository);
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "expireAfterWrite", Duration.ofMinutes(10));
+        cache.init();
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        stub(item(1, "CACHE-1", 5, 0));
+
+        assertThat(cache.getById(1L)).get().extracting(InventoryItem::getQuantity).isEqualTo(5);
+        assertThat(cache.getById(1L)).isPresent();
+        assertThat(cache.getBySku("CACHE-1")).get().extracting(InventoryItem::getId).isEqualTo(1L);
+        assertThat(cache.getBySku("CACHE-1")).isPresent();
+
+        verify(inventoryItemRepository, times(1)).findById(1L);
+        verify(inventoryItemRepository, times(1)).findBySku("CACHE-1");
+    }
+
+    @Test
+    void missingItemsAreNotFound() {
+        when(inventoryItemRepository.findById(9L)).thenReturn(Optional.empty());
+        when(inventoryItemRepository.findBySku("NONE")).thenReturn(Optional.empty());
+
+        assertThat(cache.getById(9L)).isEmpty();
+        assertThat(cache.getBySku("NONE")).isEmpty();
+    }
+
+    @Test
+    void anUpdateInvalidatesTheItem() {
+        InventoryItem item = item(1, "CACHE-1", 5, 0);
+        stub(item);
+        cache.getBySku("CACHE-1");
+
+        InventoryItem updated = item(1, "CACHE-1", 8, 1);
+        stub(updated);
+        cache.onItemChanged(new InventoryItemChangedEvent(ItemSnapshot.of(item), ItemSnapshot.of(updated)));
+
+        assertThat(cache.getById(1L)).get().extracting(InventoryItem::getQuantity).isEqualTo(8);
+        assertThat(cache.getBySku("CACHE-1")).get().extracting(InventoryItem::getVersion).isEqualTo(1L);
+    }
+
+    @Test
+    void aDeleteInvalidatesTheItem() {
+        InventoryItem item = item(1, "CACHE-1", 5, 0);
+        stub(item);
+        cache.getBySku("CACHE-1");
+
+        InventoryItem deleted = item(1, "CACHE-1", 5, 1);
+        deleted.setIsActive(false);
+        stub(deleted);
+        cache.onItemChanged(new InventoryItemChangedEvent(ItemSnapshot.of(item), ItemSnapshot.of(deleted)));
+
+        assertThat(cache.getById(1L)).get().extracting(InventoryItem::getIsActive).isEqualTo(false);
+        assertThat(cache.getBySku("CACHE-1")).get().extracting(InventoryItem::getIsActive).isEqualTo(false);
+    }
+
+    @Test
+    void aSkuChangeInvalidatesBothSkus() {
+        InventoryItem item = item(1, "OLD-1", 5, 0);
+        stub(item);
+        cache.getBySku("OLD-1");
+
+        InventoryItem renamed = item(1, "NEW-1", 5, 1);
+        when(inventoryItemRepository.findById(1L)).thenReturn(Optional.of(renamed));
+        when(inventoryItemRepository.findBySku("OLD-1")).thenReturn(Optional.empty());
+        when(inventoryItemRepository.findBySku("NEW-1")).thenReturn(Optional.of(renamed));
+        cache.onItemChanged(new InventoryItemChangedEvent(ItemSnapshot.of(item), ItemSnapshot.of(renamed)));
+
+        assertThat(cache.getBySku("OLD-1")).isEmpty();
+        assertThat(cache.getBySku("NEW-1")).get().extracting(InventoryItem::getId).isEqualTo(1L);
+    }
+
+    @Test
+    void theItemIsNotCachedFromTheSkuLookup() {
+        // The SKU lookup read the row before a write that committed and invalidated the id entry
+        when(inventoryItemRepository.findBySku("CACHE-1")).thenReturn(Optional.of(item(1, "CACHE-1", 5, 0)));
+        when(inventoryItemRepository.findById(1L)).thenReturn(Optional.of(item(1, "CACHE-1", 8, 1)));
+
+        assertThat(cache.getBySku("CACHE-1")).get().extracting(InventoryItem::getQuantity).isEqualTo(8);
+        assertThat(cache.getById(1L)).get().extracting(InventoryItem::getQuantity).isEqualTo(8);
+    }
+
+    @Test
+    void callersGetTheirOwnCopy() {
+        InventoryItem item = item(1, "CACHE-1", 5, 0);
+        stub(item);
+
+        cache.getById(1L).get().setQuantity(99);
+        cache.getBySku("CACHE-1").get().setName("Changed");
+        // Nor does the loaded entity stay shared with the cache
+        item.setSku("CHANGED");
+
+        InventoryItem cached = cache.getById(1L).get();
+        assertThat(cached.getQuantity()).isEqualTo(5);
+        assertThat(cached.getName()).isEqualTo("Item 1");
+        assertThat(cached.getSku()).isEqualTo("CACHE-1");
+        assertThat(cached).isNotSameAs(cache.getById(1L).get());
+    }
+
+    private void stub(InventoryItem item) {
+        when(inventoryItemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(inventoryItemRepository.findBySku(item.getSku())).thenReturn(Optional.of(item));
+    }
+
+    private static InventoryItem item(long id, String sku, int quantity, long version) {
+        InventoryItem item = new InventoryItem();
+        item.setId(id);
+        item.setSku(sku);
+        item.setName("Item " + id);
+        item.setQuantity(quantity);
+        item.setReorderThreshold(2);
+        item.setIsActive(true);
+        item.setVersion(version);
+        return item;
+    }
+}
@@ -0,0 +1,223 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTests {
+
+    private final InventoryItemRepository inventoryItemRepository = mock(InventoryItemRepository.class);
+
+    private final List<Runnable> compactions = new ArrayList<>();
+
+    @Test
+    void matchesAreRankedByWhereTheTermIsFound() {
+        ItemSearchIndex index = index(List.of(
+                item(7, "Washer", "X-4", "Fits any bolt"),
+                item(6, "Nut", "NUT-BOLT", null),
+                item(5, "Big bolt", "X-3", null),
+                item(4, "Bolt washer", "X-2", null),
+                item(3, "Yak", "BOLT-2", null),
+                item(2, "Bolt", "X-1", null),
+                item(1, "Zeta", "BOLT", null),
+                item(8, "Hammer", "X-5", "Not a match")));
+
+        assertThat(ids(index, "bolt", 0, 10)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(index.search("BOLT", 0, 10).getTotal()).isEqualTo(7);
+        assertThat(ids(index, "bolt", 2, 3)).containsExactly(3L, 4L, 5L);
+        assertThat(ids(index, "bolt", 6, 10)).containsExactly(7L);
+        assertThat(ids(index, "bolt", 7, 10)).isEmpty();
+        assertThat(index.search("bolt", 0, 0).getTotal()).isEqualTo(7);
+    }
+
+    @Test
+    void everyTrigramMustMatchAsOneSubstring() {
+        ItemSearchIndex index = index(List.of(
+                item(1, "Steel bolt", "S-1", null),
+                item(2, "Steel nut", "S-2", null),
+                // Contains every trigram of "eel bo" but not the substring
+                item(3, "Eel", "S-3", "Fuel bolt, eel nut")));
+
+        assertThat(ids(index, "steel", 0, 10)).containsExactly(1L, 2L);
+        assertThat(ids(index, "eel bo", 0, 10)).containsExactly(1L);
+        assertThat(ids(index, "steel washer", 0, 10)).isEmpty();
+        assertThat(ids(index, "zzz", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void shortTermsScanEveryLiveItem() {
+        ItemSearchIndex index = index(List.of(
+                item(1, "Ax", "T-1", null),
+                item(2, "Box", "T-2", null),
+                item(3, "Saw", "U-3", null)));
+
+        // Ties are ordered by name
+        assertThat(ids(index, "x", 0, 10)).containsExactly(1L, 2L);
+        assertThat(ids(index, "t-", 0, 10)).containsExactly(1L, 2L);
+        assertThat(index.search("", 0, 10).getTotal()).isEqualTo(3);
+
+        index.onItemChanged(delete(item(2, "Box", "T-2", null), 2));
+        assertThat(ids(index, "x", 0, 10)).containsExactly(1L);
+        assertThat(index.search(" ", 0, 10).getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void changedAndDeletedItemsLeaveNoStaleMatches() {
+        ItemSearchIndex index = index(List.of(item(1, "Copper pipe", "P-1", null), item(2, "Copper wire", "W-1", null)));
+
+        index.onItemChanged(rename(1, "Copper pipe", "Brass pipe", 2));
+        assertThat(ids(index, "copper", 0, 10)).containsExactly(2L);
+        assertThat(ids(index, "brass", 0, 10)).containsExactly(1L);
+
+        index.onItemChanged(delete(item(2, "Copper wire", "W-1", null), 2));
+        assertThat(ids(index, "copper", 0, 10)).isEmpty();
+        assertThat(ids(index, "pipe", 0, 10)).containsExactly(1L);
+
+        // Stock-only writes leave the text alone
+        ItemSnapshot before = snapshot(item(1, "Brass pipe", "P-1", null), 2, true);
+        index.onItemChanged(new InventoryItemChangedEvent(before, before.withQuantity(99)));
+        assertThat(ids(index, "brass", 0, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void snapshotsOlderThanTheIndexedOneAreDropped() {
+        ItemSearchIndex index = index(List.of(item(1, "Anvil", "A-1", null)));
+
+        // Renamed twice; the second rename's callback runs first
+        index.onItemChanged(rename(1, "Anvil", "Hammer", 3));
+        index.onItemChanged(rename(1, "Anvil", "Chisel", 2));
+        assertThat(ids(index, "hammer", 0, 10)).containsExactly(1L);
+        assertThat(ids(index, "chisel", 0, 10)).isEmpty();
+
+        // A late re-creation of a deleted item does not bring it back
+        index.onItemChanged(delete(item(1, "Hammer", "A-1", null), 5));
+        index.onItemChanged(rename(1, "Hammer", "Tongs", 4));
+        assertThat(index.search("", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void changesMadeWhileBuildingAreKept() {
+        ItemSearchIndex index = newIndex();
+
+        // Item 1 is renamed after the build read it, item 2 is renamed before and read in its new state
+        when(inventoryItemRepository.findByIsActiveTrue(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    index.onItemChanged(rename(1, "Drill", "Driver", 1));
+                    index.onItemChanged(rename(2, "Level", "Laser level", 1));
+                    index.onItemChanged(create(item(3, "Clamp", "C-3", null), 0));
+                    return Window.from(List.of(item(1, "Drill", "D-1", null, 0), item(2, "Laser level", "L-2", null, 1)),
+                            ScrollPosition::offset, false);
+                });
+        assertThat(index.isReady()).isFalse();
+        index.build();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(ids(index, "drill", 0, 10)).isEmpty();
+        assertThat(ids(index, "driver", 0, 10)).containsExactly(1L);
+        assertThat(ids(index, "level", 0, 10)).containsExactly(2L);
+        assertThat(ids(index, "clamp", 0, 10)).containsExactly(3L);
+    }
+
+    @Test
+    void compactionRunsOffTheWritePathAndKeepsLaterChanges() {
+        List<InventoryItem> items = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            items.add(item(i, "Gear " + i, "G-" + i, null));
+        }
+        ItemSearchIndex index = index(items);
+
+        for (int version = 1; version <= 1001; version++) {
+            index.onItemChanged(rename(1, "Gear 1", "Sprocket " + version, version));
+        }
+        assertThat(compactions).hasSize(1);
+
+        // Written while the compactor runs: applied to both the live index and the compacted one
+        index.onItemChanged(rename(1, "Sprocket 1001", "Pulley", 1002));
+        index.onItemChanged(delete(item(2, "Gear 2", "G-2", null), 1));
+        assertThat(ids(index, "pulley", 0, 10)).containsExactly(1L);
+        assertThat(compactions).hasSize(1);
+
+        compactions.get(0).run();
+        // The stale versions of item 1 are gone
+        Object compacted = ReflectionTestUtils.getField(index, "index");
+        assertThat((int) ReflectionTestUtils.getField(compacted, "size")).isEqualTo(11);
+        assertThat(ids(index, "pulley", 0, 10)).containsExactly(1L);
+        assertThat(ids(index, "sprocket", 0, 10)).isEmpty();
+        assertThat(ids(index, "gear", 0, 10)).hasSize(8);
+        assertThat(index.search("", 0, 100).getTotal()).isEqualTo(9);
+
+        // Versions survive the compaction
+        index.onItemChanged(rename(1, "Pulley", "Sprocket", 1001));
+        assertThat(ids(index, "pulley", 0, 10)).containsExactly(1L);
+    }
+
+    private ItemSearchIndex index(List<InventoryItem> items) {
+        ItemSearchIndex index = newIndex();
+        when(inventoryItemRepository.findByIsActiveTrue(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(items, ScrollPosition::offset, false));
+        index.build();
+        return index;
+    }
+
+    private ItemSearchIndex newIndex() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        ReflectionTestUtils.setField(index, "inventoryItemRepository", inventoryItemRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "compactionExecutor", (Executor) compactions::add);
+        return index;
+    }
+
+    private static List<Long> ids(ItemSearchIndex index, String term, long offset, int limit) {
+        return index.search(term, offset, limit).getItemIds();
+    }
+
+    private static InventoryItemChangedEvent rename(long id, String oldName, String newName, long version) {
+        InventoryItem item = item(id, oldName, "R-" + id, null);
+        ItemSnapshot before = snapshot(item, version - 1, true);
+        item.setName(newName);
+        return new InventoryItemChangedEvent(before, snapshot(item, version, true));
+    }
+
+    private static InventoryItemChangedEvent create(InventoryItem item, long version) {
+        return new InventoryItemChangedEvent(null, snapshot(item, version, true));
+    }
+
+    private static InventoryItemChangedEvent delete(InventoryItem item, long version) {
+        return new InventoryItemChangedEvent(snapshot(item, version - 1, true), snapshot(item, version, false));
+    }
+
+    private static ItemSnapshot snapshot(InventoryItem item, long version, boolean active) {
+        return new ItemSnapshot(item.getId(), item.getSku(), item.getName(), item.getDescription(), 10, 2,
+                null, null, null, null, active, version);
+    }
+
+    private static InventoryItem item(long id, String name, String sku, String description) {
+        return item(id, name, sku, description, 0);
+    }
+
+    private static InventoryItem item(long id, String name, String sku, String description, long version) {
+        InventoryItem item = new InventoryItem();
+        item.setId(id);
+        item.setName(name);
+        item.setSku(sku);
+        item.setDescription(description);
+        item.setVersion(version);
+        return item;
+    }
+}
@@ -0,0 +1,123 @@
+package com.kushyanth.inventary.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.dto.InventoryItemRequest;
+import com.kushyanth.inventary.dto.StockUpdateRequest;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.entity.NotificationDeadLetter;
+import com.kushyanth.inventary.repository.NotificationDeadLetterRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Runs the alert path against a local GreenMail SMTP server instead of a real relay. The other tests must
+// not send alerts, so this is the one test with its own context.
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "inventory.alert.recipient=alerts@example.com"
+})
+@WithMockUser(username = "admin", roles = "ADMIN")
+class LowStockAlertDispatcherTests extends IntegrationTestSupport {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("test", "test"));
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private LowStockAlertDispatcher lowStockAlertDispatcher;
+
+    @Autowired
+    private NotificationDeadLetterRepository deadLetterRepository;
+
+    @Test
+    void alertsWithinOneWindowAreCoalescedIntoOneMessage() throws Exception {
+        InventoryItem first = createItem("ALERT-1");
+        InventoryItem second = createItem("ALERT-2");
+
+        inventoryService.updateStock(first.getId(), stockUpdate(1));
+        inventoryService.updateStock(second.getId(), stockUpdate(2));
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        Thread.sleep(500);
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertThat(messages).hasSize(1);
+        assertThat(messages[0].getAllRecipients()[0].toString()).isEqualTo("alerts@example.com");
+        assertThat(messages[0].getSubject()).isEqualTo("Low Stock Alert: 2 items need attention");
+        String body = messages[0].getContent().toString();
+        assertThat(body).contains("ALERT-1").contains("ALERT-2");
+    }
+
+    @Test
+    void onlyTheCrossingIntoLowStockSendsAnAlert() throws Exception {
+        InventoryItem item = createItem("ALERT-4");
+
+        // Drained one unit at a time, then restocked and drained again within the suppression window
+        for (int quantity : new int[]{6, 5, 4, 3, 50, 2}) {
+            inventoryService.updateStock(item.getId(), stockUpdate(quantity));
+        }
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        Thread.sleep(1000);
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertThat(messages).hasSize(1);
+        assertThat(messages[0].getSubject()).isEqualTo("Low Stock Alert: ALERT-4");
+        assertThat(messages[0].getContent().toString()).contains("Current Quantity: 5");
+    }
+
+    @Test
+    void undeliverableAlertIsDeadLetteredAndCanBeRetried() {
+        greenMail.stop();
+        InventoryItem item = createItem("ALERT-3");
+        inventoryService.updateStock(item.getId(), stockUpdate(0));
+
+        NotificationDeadLetter deadLetter = await().atMost(Duration.ofSeconds(10))
+                .until(() -> findDeadLetter("Low Stock Alert: ALERT-3"), letters -> !letters.isEmpty())
+                .get(0);
+        assertThat(deadLetter.getAttempts()).isEqualTo(3);
+        assertThat(deadLetter.getRecipient()).isEqualTo("alerts@example.com");
+
+        greenMail.start();
+        lowStockAlertDispatcher.retryDeadLetter(deadLetter.getId());
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(findDeadLetter("Low Stock Alert: ALERT-3")).isEmpty();
+    }
+
+    private List<NotificationDeadLetter> findDeadLetter(String subject) {
+        return deadLetterRepository.findAll().stream()
+                .filter(letter -> subject.equals(letter.getSubject()))
+                .toList();
+    }
+
+    private InventoryItem createItem(String sku) {
+        InventoryItemRequest request = itemRequest(sku, 50);
+        request.setName(sku);
+        request.setReorderThreshold(5);
+        return inventoryService.createItem(request);
+    }
+
+    private StockUpdateRequest stockUpdate(int quantity) {
+        StockUpdateRequest request = new StockUpdateRequest();
+        request.setNewQuantity(quantity);
+        request.setChangeType(InventoryChangeLog.ChangeType.STOCK_OUT);
+        return request;
+    }
+}
@@ -0,0 +1,98 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.dto.LowStockLevel;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The dispatch and mail side is covered end to end by LowStockAlertDispatcherTests
+class LowStockAlertStateTests {
+
+    @Test
+    void onlyTheCrossingIntoLowStockAlerts() {
+        LowStockAlertState state = state(Duration.ofHours(1), List.of());
+
+        assertThat(state.onItemChanged(item(1, 20, true, 1))).isFalse();
+        assertThat(state.onItemChanged(item(1, 5, true, 2))).isTrue();
+        assertThat(state.onItemChanged(item(1, 4, true, 3))).isFalse();
+        assertThat(state.drainNewlyLow()).containsExactly(1L);
+        assertThat(state.drainNewlyLow()).isEmpty();
+    }
+
+    @Test
+    void anotherCrossingWithinTheSuppressionWindowDoesNotAlert() {
+        LowStockAlertState suppressing = state(Duration.ofHours(1), List.of());
+        assertThat(suppressing.onItemChanged(item(1, 5, true, 1))).isTrue();
+        assertThat(suppressing.onItemChanged(item(1, 50, true, 2))).isFalse();
+        assertThat(suppressing.onItemChanged(item(1, 5, true, 3))).isFalse();
+        // Still reported as having gone low
+        assertThat(suppressing.drainNewlyLow()).containsExactly(1L);
+
+        LowStockAlertState unsuppressed = state(Duration.ZERO, List.of());
+        assertThat(unsuppressed.onItemChanged(item(1, 5, true, 1))).isTrue();
+        assertThat(unsuppressed.onItemChanged(item(1, 50, true, 2))).isFalse();
+        assertThat(unsuppressed.onItemChanged(item(1, 5, true, 3))).isTrue();
+    }
+
+    @Test
+    void itemsLowAtStartupDoNotAlertAgain() {
+        LowStockAlertState state = state(Duration.ZERO, List.of(level(1, 3)));
+
+        assertThat(state.onItemChanged(item(1, 4, true, 4))).isFalse();
+        assertThat(state.onItemChanged(item(1, 50, true, 2))).isFalse();
+        assertThat(state.onItemChanged(item(1, 3, true, 5))).isFalse();
+        assertThat(state.drainNewlyLow()).isEmpty();
+    }
+
+    @Test
+    void lateSnapshotsAreIgnored() {
+        LowStockAlertState state = state(Duration.ZERO, List.of());
+
+        // A restock committed after the drop is delivered first; the late drop must not mark it low
+        assertThat(state.onItemChanged(item(1, 50, true, 3))).isFalse();
+        assertThat(state.onItemChanged(item(1, 5, true, 2))).isFalse();
+        assertThat(state.onItemChanged(item(1, 5, true, 4))).isTrue();
+
+        // A late restock must not make the next write of a low item look like a new crossing
+        assertThat(state.onItemChanged(item(2, 5, true, 2))).isTrue();
+        assertThat(state.onItemChanged(item(2, 50, true, 1))).isFalse();
+        assertThat(state.onItemChanged(item(2, 4, true, 3))).isFalse();
+
+        // Deleted items count as not low
+        assertThat(state.onItemChanged(item(2, 4, false, 5))).isFalse();
+        assertThat(state.onItemChanged(item(2, 4, true, 6))).isTrue();
+    }
+
+    private static LowStockAlertState state(Duration suppressionWindow, List<LowStockLevel> levels) {
+        InventoryItemRepository inventoryItemRepository = mock(InventoryItemRepository.class);
+        when(inventoryItemRepository.findLowStockLevels()).thenReturn(levels);
+
+        LowStockAlertState state = new LowStockAlertState();
+        ReflectionTestUtils.setField(state, "inventoryItemRepository", inventoryItemRepository);
+        ReflectionTestUtils.setField(state, "suppressionWindow", suppressionWindow);
+        state.initialize();
+        return state;
+    }
+
+    // Reorder threshold 10
+    private static ItemSnapshot item(long id, int quantity, boolean active, long version) {
+        return new ItemSnapshot(id, "ALERT-" + id, "Item " + id, null, quantity, 10,
+                null, null, null, null, active, version);
+    }
+
+    private static LowStockLevel level(long id, long version) {
+        return new Level(id, 2, 10, version);
+    }
+
+    private record Level(Long getId, Integer getQuantity, Integer getReorderThreshold, Long getVersion)
+            implements LowStockLevel {
+    }
+}
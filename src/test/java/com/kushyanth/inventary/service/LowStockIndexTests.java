@@ -0,0 +1,113 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.dto.LowStockLevel;
+import com.kushyanth.inventary.event.InventoryItemChangedEvent;
+import com.kushyanth.inventary.event.ItemSnapshot;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LowStockIndexTests {
+
+    private final InventoryItemRepository inventoryItemRepository = mock(InventoryItemRepository.class);
+
+    @Test
+    void itemsAreOrderedByShortfallAndPaged() {
+        LowStockIndex index = index(List.of());
+
+        index.onItemChanged(change(item(1, 4, 10, true, 1)));
+        index.onItemChanged(change(item(2, 0, 10, true, 1)));
+        index.onItemChanged(change(item(3, 4, 10, true, 1)));
+        index.onItemChanged(change(item(4, 9, 10, true, 1)));
+        // Not low, so not listed
+        index.onItemChanged(change(item(5, 11, 10, true, 1)));
+
+        // Equal shortfalls are ordered by id
+        assertThat(index.getItemIds(0, 10)).containsExactly(2L, 1L, 3L, 4L);
+        assertThat(index.getItemIds(1, 2)).containsExactly(1L, 3L);
+        assertThat(index.getItemIds(3, 10)).containsExactly(4L);
+        assertThat(index.getItemIds(4, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+
+        // A larger shortfall moves the item to the front
+        index.onItemChanged(change(item(4, 0, 20, true, 2)));
+        assertThat(index.getItemIds(0, 2)).containsExactly(4L, 2L);
+    }
+
+    @Test
+    void restockedAndDeletedItemsAreRemoved() {
+        LowStockIndex index = index(List.of(level(1, 2, 10, 3), level(2, 1, 10, 5)));
+
+        index.onItemChanged(change(item(1, 50, 10, true, 4)));
+        index.onItemChanged(change(item(2, 1, 10, false, 6)));
+
+        assertThat(index.getItemIds(0, 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void snapshotsOlderThanTheAppliedOneAreDropped() {
+        LowStockIndex index = index(List.of());
+
+        // Two writes commit as 2 then 3, their callbacks run the other way round
+        index.onItemChanged(change(item(1, 50, 10, true, 3)));
+        index.onItemChanged(change(item(1, 2, 10, true, 2)));
+        assertThat(index.getItemIds(0, 10)).isEmpty();
+
+        index.onItemChanged(change(item(2, 2, 10, true, 5)));
+        index.onItemChanged(change(item(2, 50, 10, true, 4)));
+        assertThat(index.getItemIds(0, 10)).containsExactly(2L);
+    }
+
+    @Test
+    void changesMadeWhileLoadingAreKept() {
+        LowStockIndex index = new LowStockIndex();
+        ReflectionTestUtils.setField(index, "inventoryItemRepository", inventoryItemRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", mock(PlatformTransactionManager.class));
+
+        // The load read item 1 as low at version 3 and missed item 3, both written while it ran
+        when(inventoryItemRepository.findLowStockLevels()).thenAnswer(invocation -> {
+            index.onItemChanged(change(item(1, 40, 10, true, 4)));
+            index.onItemChanged(change(item(3, 1, 10, true, 2)));
+            return List.of(level(1, 2, 10, 3), level(2, 5, 10, 7));
+        });
+        assertThat(index.isReady()).isFalse();
+        index.initialize();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.getItemIds(0, 10)).containsExactly(3L, 2L);
+    }
+
+    private LowStockIndex index(List<LowStockLevel> levels) {
+        LowStockIndex index = new LowStockIndex();
+        ReflectionTestUtils.setField(index, "inventoryItemRepository", inventoryItemRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", mock(PlatformTransactionManager.class));
+        when(inventoryItemRepository.findLowStockLevels()).thenReturn(levels);
+        index.initialize();
+        return index;
+    }
+
+    private static InventoryItemChangedEvent change(ItemSnapshot after) {
+        return new InventoryItemChangedEvent(null, after);
+    }
+
+    private static ItemSnapshot item(long id, int quantity, int reorderThreshold, boolean active, long version) {
+        return new ItemSnapshot(id, "LOW-" + id, "Item " + id, null, quantity, reorderThreshold,
+                null, null, null, null, active, version);
+    }
+
+    private static LowStockLevel level(long id, int quantity, int reorderThreshold, long version) {
+        return new Level(id, quantity, reorderThreshold, version);
+    }
+
+    private record Level(Long getId, Integer getQuantity, Integer getReorderThreshold, Long getVersion)
+            implements LowStockLevel {
+    }
+}
@@ -0,0 +1,169 @@
+package com.kushyanth.inventary.service;
+
+import com.kushyanth.inventary.IntegrationTestSupport;
+import com.kushyanth.inventary.dto.InventoryItemRequest;
+import com.kushyanth.inventary.dto.StockDeltaRequest;
+import com.kushyanth.inventary.dto.StockLevelResponse;
+import com.kushyanth.inventary.entity.InventoryChangeLog;
+import com.kushyanth.inventary.entity.InventoryItem;
+import com.kushyanth.inventary.exception.InsufficientStockException;
+import com.kushyanth.inventary.repository.InventoryChangeLogRepository;
+import com.kushyanth.inventary.repository.InventoryItemRepository;
+import com.kushyanth.inventary.repository.StockLedgerCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WithMockUser(username = "admin", roles = "ADMIN")
+class StockLedgerTests extends IntegrationTestSupport {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private InventoryChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private StockLedgerCheckpointRepository checkpointRepository;
+
+    @TempDir
+    Path tempDir;
+
+    // The ledger is switched on for each test without its flusher, so the tests decide when changes
+    // reach the database. A fresh journal each time, an old one would be replayed against other items.
+    @BeforeEach
+    void enableLedger() throws IOException {
+        StockLedger target = AopTestUtils.getTargetObject(stockLedger);
+        ReflectionTestUtils.setField(target, "enabled", true);
+        ReflectionTestUtils.setField(target, "journalPath", tempDir.resolve("journal").toString());
+        target.init();
+    }
+
+    @AfterEach
+    void disableLedger() throws InterruptedException {
+        StockLedger target = AopTestUtils.getTargetObject(stockLedger);
+        target.shutdown();
+        ReflectionTestUtils.setField(target, "enabled", false);
+    }
+
+    @Test
+    void concurrentChangesAreFlushedAsOneNetUpdate() throws Exception {
+        InventoryItem item = createItem("LEDGER-1", 1000);
+        long sequenceBefore = checkpointRepository.findLastSequence();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 800; i++) {
+            futures.add(executor.submit(() -> stockLedger.adjust(item.getId(), -1, false,
+                    InventoryChangeLog.ChangeType.SOLD, "Ledger test", "admin")));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Nothing is written until the flush
+        assertThat(inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity()).isEqualTo(1000);
+        stockLedger.flush();
+
+        assertThat(inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity()).isEqualTo(200);
+        assertThat(changeLogRepository.findAll())
+                .filteredOn(log -> log.getInventoryItem().getId().equals(item.getId())
+                        && log.getChangeType() == InventoryChangeLog.ChangeType.SOLD)
+                .hasSize(800)
+                .extracting(InventoryChangeLog::getNewQuantity)
+                .doesNotHaveDuplicates();
+        assertThat(checkpointRepository.findLastSequence()).isEqualTo(sequenceBefore + 800);
+    }
+
+    @Test
+    void overdrawingIsRejectedWithoutTouchingTheLedger() {
+        InventoryItem item = createItem("LEDGER-2", 5);
+
+        StockDeltaRequest request = new StockDeltaRequest();
+        request.setDelta(-3);
+        request.setChangeType(InventoryChangeLog.ChangeType.SOLD);
+        StockLevelResponse stockLevel = inventoryService.adjustStock(item.getId(), request);
+        assertThat(stockLevel.getQuantity()).isEqualTo(2);
+        assertThat(stockLevel.isLowStock()).isTrue();
+
+        assertThatThrownBy(() -> inventoryService.adjustStock(item.getId(), request))
+                .isInstanceOf(InsufficientStockException.class);
+
+        stockLedger.flush();
+        assertThat(inventoryItemRepository.findLowStockItems()).extracting(InventoryItem::getSku).contains("LEDGER-2");
+    }
+
+    @Test
+    void writesOutsideTheLedgerSeePendingChanges() {
+        InventoryItem item = createItem("LEDGER-3", 50);
+        stockLedger.adjust(item.getId(), 10, false, InventoryChangeLog.ChangeType.STOCK_IN, "Ledger test", "admin");
+
+        // The edit flushes the pending +10 first, so it is not added again on top of the edited quantity
+        InventoryItemRequest edit = itemRequest("LEDGER-3", 60);
+        edit.setName("Renamed");
+        inventoryService.updateItem(item.getId(), edit);
+
+        StockLevelResponse stockLevel = stockLedger.adjust(item.getId(), -5, false,
+                InventoryChangeLog.ChangeType.SOLD, "Ledger test", "admin");
+        assertThat(stockLevel.getOldQuantity()).isEqualTo(60);
+        stockLedger.flush();
+        assertThat(inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity()).isEqualTo(55);
+    }
+
+    @Test
+    void bufferedStockUpdatesReturnNoETag() throws Exception {
+        InventoryItem item = createItem("LEDGER-4", 20);
+        String stockUpdate = "{\"newQuantity\":15,\"changeType\":\"SOLD\"}";
+
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(stockUpdate))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(15))
+                .andExpect(header().doesNotExist("ETag"));
+        stockLedger.flush();
+
+        // The version written by the flush is the one a read reports and If-Match accepts
+        String eTag = mockMvc.perform(get("/api/inventory/items/{id}", item.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(put("/api/inventory/items/{id}/stock", item.getId()).header("If-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"newQuantity\":12,\"changeType\":\"SOLD\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+        assertThat(inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantity()).isEqualTo(12);
+    }
+
+    private InventoryItem createItem(String sku, int quantity) {
+        return inventoryService.createItem(itemRequest(sku, quantity));
+    }
+}